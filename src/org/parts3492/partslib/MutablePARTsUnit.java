@@ -0,0 +1,179 @@
+/* Copyright (c) 2026 PARTs 3492. All rights reserved. */
+/* This work is licensed under the terms of the license */
+/* found in the root directory of this project. */
+
+package org.parts3492.partslib;
+
+import org.parts3492.partslib.PARTsUnit.PARTsUnitType;
+
+/**
+ * MutablePARTsUnit - A {@link org.parts3492.partslib.PARTsUnit PARTsUnit} that is updated in
+ * place.
+ *
+ * <p>Keep one per signal and update it every loop instead of creating new units:
+ *
+ * <p>{@code velocity.setTo(motor.getVelocity(), PARTsUnitType.RotationsPerSecond)
+ * .convertTo(PARTsUnitType.MetersPerSecond);}
+ *
+ * <p>Every operation returns this unit, so operations can be chained.
+ */
+public class MutablePARTsUnit {
+    private double value;
+    private PARTsUnitType unitType;
+
+    /**
+     * Create a new MutablePARTsUnit.
+     *
+     * @param value The initial value of the unit.
+     * @param unitType The type that the initial value is currently in.
+     */
+    public MutablePARTsUnit(double value, PARTsUnitType unitType) {
+        this.value = value;
+        this.unitType = unitType;
+    }
+
+    /**
+     * Create a new MutablePARTsUnit with a value of 0.
+     *
+     * @param unitType The type of the unit.
+     */
+    public MutablePARTsUnit(PARTsUnitType unitType) {
+        this(0, unitType);
+    }
+
+    /**
+     * Gets the raw value as a double.
+     *
+     * @return The value as a double.
+     */
+    public double getValue() {
+        return value;
+    }
+
+    /**
+     * Gets the absolute value as a double.
+     *
+     * @return The value as a double.
+     */
+    public double getMagnitude() {
+        return Math.abs(value);
+    }
+
+    /**
+     * Get the current unit type.
+     *
+     * @return The unit type as a {@link org.parts3492.partslib.PARTsUnit.PARTsUnitType
+     *     PARTsUnitType}.
+     */
+    public PARTsUnitType getUnitType() {
+        return unitType;
+    }
+
+    /**
+     * Gets the value in another unit without changing this unit.
+     *
+     * @param unitType The target unit.
+     * @return Converted unit in double.
+     */
+    public double to(PARTsUnitType unitType) {
+        return PARTsUnit.convert(value, this.unitType, unitType);
+    }
+
+    /**
+     * Sets the value and unit type.
+     *
+     * @param value The new value.
+     * @param unitType The type that the new value is in.
+     * @return This unit.
+     */
+    public MutablePARTsUnit setTo(double value, PARTsUnitType unitType) {
+        this.value = value;
+        this.unitType = unitType;
+        return this;
+    }
+
+    /**
+     * Copies the value and unit type of another unit.
+     *
+     * @param unit The unit to copy.
+     * @return This unit.
+     */
+    public MutablePARTsUnit setTo(PARTsUnit unit) {
+        return setTo(unit.getValue(), unit.getUnitType());
+    }
+
+    /**
+     * Copies the value and unit type of another unit.
+     *
+     * @param unit The unit to copy.
+     * @return This unit.
+     */
+    public MutablePARTsUnit setTo(MutablePARTsUnit unit) {
+        return setTo(unit.value, unit.unitType);
+    }
+
+    /**
+     * Adds a value, keeping this unit's type.
+     *
+     * @param value The value to add.
+     * @param unitType The type that the value is in.
+     * @return This unit.
+     */
+    public MutablePARTsUnit plus(double value, PARTsUnitType unitType) {
+        this.value += PARTsUnit.convert(value, unitType, this.unitType);
+        return this;
+    }
+
+    /**
+     * Adds another unit, keeping this unit's type.
+     *
+     * @param unit The unit to add.
+     * @return This unit.
+     */
+    public MutablePARTsUnit plus(PARTsUnit unit) {
+        return plus(unit.getValue(), unit.getUnitType());
+    }
+
+    /**
+     * Adds another unit, keeping this unit's type.
+     *
+     * @param unit The unit to add.
+     * @return This unit.
+     */
+    public MutablePARTsUnit plus(MutablePARTsUnit unit) {
+        return plus(unit.value, unit.unitType);
+    }
+
+    /**
+     * Multiplies the value by a scalar.
+     *
+     * @param scalar The scalar.
+     * @return This unit.
+     */
+    public MutablePARTsUnit times(double scalar) {
+        value *= scalar;
+        return this;
+    }
+
+    /**
+     * Converts this unit into the requested unit.
+     *
+     * @param unitType The target unit.
+     * @return This unit.
+     */
+    public MutablePARTsUnit convertTo(PARTsUnitType unitType) {
+        value = PARTsUnit.convert(value, this.unitType, unitType);
+        this.unitType = unitType;
+        return this;
+    }
+
+    /**
+     * Creates an immutable copy of this unit, e.g. for APIs that take a {@link
+     * org.parts3492.partslib.PARTsUnit PARTsUnit}.
+     *
+     * @return The copy.
+     */
+    public PARTsUnit toPARTsUnit() {
+        return new PARTsUnit(value, unitType);
+    }
+}
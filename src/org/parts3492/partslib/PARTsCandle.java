@@ -7,12 +7,14 @@ package org.parts3492.partslib;
 import org.parts3492.partslib.command.PARTsCommandUtils;
 import org.parts3492.partslib.command.PARTsSubsystem;
 
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.Command;
 
 import com.ctre.phoenix6.CANBus;
 import com.ctre.phoenix6.configs.CANdleConfiguration;
 import com.ctre.phoenix6.controls.ColorFlowAnimation;
 import com.ctre.phoenix6.controls.ControlRequest;
+import com.ctre.phoenix6.controls.EmptyAnimation;
 import com.ctre.phoenix6.controls.FireAnimation;
 import com.ctre.phoenix6.controls.LarsonAnimation;
 import com.ctre.phoenix6.controls.RainbowAnimation;
@@ -30,6 +32,12 @@ import com.ctre.phoenix6.signals.StatusLedWhenActiveValue;
 import com.ctre.phoenix6.signals.StripTypeValue;
 import com.ctre.phoenix6.signals.VBatOutputModeValue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleSupplier;
+
 public abstract class PARTsCandle extends PARTsSubsystem {
     // https://github.com/CrossTheRoadElec/Phoenix5-Examples/blob/master/Java%20General/CANdle%20MultiAnimation/src/main/java/frc/robot/subsystems/CANdleSystem.java
     private static CANdle candle;
@@ -138,10 +146,126 @@ public abstract class PARTsCandle extends PARTsSubsystem {
             this.g = g;
             this.b = b;
         }
+
+        /**
+         * Gets the color packed as 0xRRGGBB, the format of the frame buffer.
+         *
+         * @return The packed color.
+         */
+        public int toRGB() {
+            return (r << 16) | (g << 8) | b;
+        }
+    }
+
+    /**
+     * Draws one segment of the LED frame.
+     *
+     * <p>Pixels the animation does not write keep the color of the segments drawn before it.
+     */
+    @FunctionalInterface
+    public interface SegmentAnimation {
+        /**
+         * Draws the segment into the frame.
+         *
+         * @param frame The frame buffer, one packed 0xRRGGBB color per LED.
+         * @param start The index of the first LED of the segment.
+         * @param length The number of LEDs in the segment.
+         * @param time The current time in seconds.
+         */
+        void render(int[] frame, int start, int length, double time);
+
+        /**
+         * Fills the segment with one color.
+         *
+         * @param color The color.
+         * @return The animation.
+         */
+        static SegmentAnimation solid(Color color) {
+            int rgb = color.toRGB();
+            return (frame, start, length, time) -> Arrays.fill(frame, start, start + length, rgb);
+        }
+
+        /**
+         * Turns the segment on and off.
+         *
+         * @param color The color when on.
+         * @param period The time of one on and off cycle in seconds.
+         * @return The animation.
+         */
+        static SegmentAnimation blink(Color color, double period) {
+            int rgb = color.toRGB();
+            return (frame, start, length, time) -> {
+                boolean on = (time % period) < period / 2;
+                Arrays.fill(frame, start, start + length, on ? rgb : 0);
+            };
+        }
+
+        /**
+         * Fills part of the segment like a progress bar, e.g. for shooter speed.
+         *
+         * @param color The color of the filled part.
+         * @param fraction Supplies how full the bar is, from 0 to 1.
+         * @return The animation.
+         */
+        static SegmentAnimation progress(Color color, DoubleSupplier fraction) {
+            int rgb = color.toRGB();
+            return (frame, start, length, time) -> {
+                double clamped = Math.max(0, Math.min(1, fraction.getAsDouble()));
+                int filled = (int) Math.round(clamped * length);
+                Arrays.fill(frame, start, start + filled, rgb);
+                Arrays.fill(frame, start + filled, start + length, 0);
+            };
+        }
+    }
+
+    /** A range of the strip that runs its own {@link SegmentAnimation}. */
+    public static final class Segment {
+        private final int start;
+        private final int length;
+        private SegmentAnimation animation;
+
+        private Segment(int start, int length, SegmentAnimation animation) {
+            this.start = start;
+            this.length = length;
+            this.animation = animation;
+        }
+
+        /**
+         * Changes the animation of the segment.
+         *
+         * @param animation The new animation, or null to leave the segment to the segments below.
+         */
+        public void setAnimation(SegmentAnimation animation) {
+            this.animation = animation;
+        }
     }
 
     private final int LED_LENGTH;
 
+    /** Segments of the frame engine, drawn in the order they were added. */
+    private final List<Segment> segments = new ArrayList<>();
+
+    private final int[] frame;
+
+    /** The colors the CANdle is showing, or -1 for unknown. */
+    private final int[] appliedFrame;
+
+    /** Reused for every range the frame engine sends. */
+    private final SolidColor frameControl = new SolidColor(0, 0);
+
+    /** The shortest time between two updates sent to the CANdle, in seconds. */
+    private double minUpdatePeriod = 0;
+
+    private double lastUpdateTime = Double.NEGATIVE_INFINITY;
+
+    /** The class and parameters of the last whole strip control, or null if unknown. */
+    private Class<?> appliedControlClass;
+
+    private Map<String, String> appliedControlInfo;
+
+    /** A whole strip control held back by the update rate, sent from {@link #periodic()}. */
+    private ControlRequest pendingControl;
+
     /**
      * Create a new PARTsCANdle.
      *
@@ -154,6 +278,8 @@ public abstract class PARTsCandle extends PARTsSubsystem {
         CANBus canbus = new CANBus("rio");
         candle = new CANdle(canID, canbus);
         LED_LENGTH = ledLength;
+        frame = new int[ledLength];
+        appliedFrame = new int[ledLength];
 
         config.CANdleFeatures.StatusLedWhenActive = StatusLedWhenActiveValue.Disabled;
         config.LED.LossOfSignalBehavior = LossOfSignalBehaviorValue.DisableLEDs;
@@ -169,7 +295,7 @@ public abstract class PARTsCandle extends PARTsSubsystem {
 
     /*---------------------------------- Custom Private Functions ---------------------------------*/
     protected void setColor(Color color) {
-        candle.setControl(
+        sendControl(
                 new SolidColor(0, LED_LENGTH).withColor(new RGBWColor(color.r, color.g, color.b)));
     }
 
@@ -319,49 +445,184 @@ public abstract class PARTsCandle extends PARTsSubsystem {
     }
 
     private void setControl(ColorFlowAnimation a) {
-        candle.setControl(a);
+        sendControl(a);
     }
 
     private void setControl(FireAnimation a) {
-        candle.setControl(a);
+        sendControl(a);
     }
 
     private void setControl(LarsonAnimation a) {
-        candle.setControl(a);
+        sendControl(a);
     }
 
     private void setControl(RainbowAnimation a) {
-        candle.setControl(a);
+        sendControl(a);
     }
 
     private void setControl(RgbFadeAnimation a) {
-        candle.setControl(a);
+        sendControl(a);
     }
 
     private void setControl(SingleFadeAnimation a) {
-        candle.setControl(a);
+        sendControl(a);
     }
 
     private void setControl(StrobeAnimation a) {
-        candle.setControl(a);
+        sendControl(a);
     }
 
     private void setControl(TwinkleAnimation a) {
-        candle.setControl(a);
+        sendControl(a);
     }
 
     private void setControl(TwinkleOffAnimation a) {
-        candle.setControl(a);
+        sendControl(a);
     }
 
     private void setControl(ControlRequest a) {
-        candle.setControl(a);
+        sendControl(a);
+    }
+
+    /**
+     * Sends a control that covers the whole strip, which stops the frame engine.
+     *
+     * @param control The control.
+     */
+    private void sendControl(ControlRequest control) {
+        clearSegments();
+        Map<String, String> info = control.getControlInfo();
+        if (control.getClass() == appliedControlClass && info.equals(appliedControlInfo)) {
+            // Already showing, e.g. when called from a command's execute().
+            pendingControl = null;
+            return;
+        }
+        if (Timer.getFPGATimestamp() - lastUpdateTime < minUpdatePeriod) {
+            pendingControl = control;
+            return;
+        }
+        applyControl(control, info);
+    }
+
+    /**
+     * Sends a whole strip control to the CANdle and remembers its parameters.
+     *
+     * @param control The control.
+     * @param info The parameters of the control.
+     */
+    private void applyControl(ControlRequest control, Map<String, String> info) {
+        candle.setControl(control);
+        appliedControlClass = control.getClass();
+        appliedControlInfo = info;
+        pendingControl = null;
+        lastUpdateTime = Timer.getFPGATimestamp();
     }
 
     private void applyConfig() {
         candle.getConfigurator().apply(config);
     }
 
+    /*------------------------------------ Frame Engine Functions -----------------------------------*/
+
+    /**
+     * Adds a segment to the frame engine.
+     *
+     * <p>Segments are drawn in the order they were added, so later segments cover earlier ones
+     * where they overlap. While there are segments, {@link #periodic()} draws the frame and sends
+     * the CANdle one {@link SolidColor} for each run of same colored LEDs that changed. Subclasses
+     * that override {@link #periodic()} must call {@code super.periodic()}.
+     *
+     * <p>{@link #setColor(Color)} and the run*Animation functions clear all segments.
+     *
+     * @param start The index of the first LED.
+     * @param length The number of LEDs.
+     * @param animation The animation to run in the segment.
+     * @return The segment, to change its animation later.
+     * @throws IllegalArgumentException If the segment does not fit on the strip.
+     */
+    protected Segment addSegment(int start, int length, SegmentAnimation animation) {
+        if (start < 0 || length < 0 || start + length > LED_LENGTH) {
+            throw new IllegalArgumentException(
+                    "Segment "
+                            + start
+                            + " to "
+                            + (start + length)
+                            + " does not fit on a strip of "
+                            + LED_LENGTH
+                            + " LEDs.");
+        }
+        if (segments.isEmpty()) {
+            // Stop any CTRE animation and resend every LED on the next frame.
+            candle.setControl(new EmptyAnimation(0));
+            Arrays.fill(appliedFrame, -1);
+            appliedControlClass = null;
+            appliedControlInfo = null;
+            pendingControl = null;
+        }
+        Segment segment = new Segment(start, length, animation);
+        segments.add(segment);
+        return segment;
+    }
+
+    /** Removes every segment, stopping the frame engine. */
+    protected void clearSegments() {
+        segments.clear();
+    }
+
+    /**
+     * Limits how often updates are sent to the CANdle.
+     *
+     * <p>Changes that come in faster are held back, and the latest one is sent once the period has
+     * passed. Setting a color or animation that is already showing is never resent.
+     *
+     * <p>Held back changes are sent from {@link #periodic()}, so subclasses that override it must
+     * call {@code super.periodic()}.
+     *
+     * @param hz The maximum updates per second, or 0 for no limit.
+     */
+    public void setMaxUpdateRate(double hz) {
+        minUpdatePeriod = (hz > 0) ? 1.0 / hz : 0;
+    }
+
+    /** Draws every segment into the frame and sends the ranges that changed. */
+    protected void renderFrame() {
+        if (segments.isEmpty()) return;
+        double time = Timer.getFPGATimestamp();
+        if (time - lastUpdateTime < minUpdatePeriod) return;
+        Arrays.fill(frame, 0);
+        for (int i = 0; i < segments.size(); i++) {
+            Segment segment = segments.get(i);
+            if (segment.animation != null) {
+                segment.animation.render(frame, segment.start, segment.length, time);
+            }
+        }
+
+        int start = 0;
+        while (start < LED_LENGTH) {
+            int color = frame[start];
+            boolean changed = appliedFrame[start] != color;
+            int end = start;
+            while (end + 1 < LED_LENGTH && frame[end + 1] == color) {
+                end++;
+                changed |= appliedFrame[end] != color;
+            }
+            if (changed) {
+                candle.setControl(
+                        frameControl
+                                .withLEDStartIndex(start)
+                                .withLEDEndIndex(end)
+                                .withColor(
+                                        new RGBWColor(
+                                                (color >> 16) & 0xff,
+                                                (color >> 8) & 0xff,
+                                                color & 0xff)));
+                Arrays.fill(appliedFrame, start, end + 1, color);
+                lastUpdateTime = time;
+            }
+            start = end + 1;
+        }
+    }
+
     /*---------------------------------- Custom Public Functions ----------------------------------*/
 
     /* Wrappers so we can access the CANdle from the subsystem */
@@ -403,9 +664,20 @@ public abstract class PARTsCandle extends PARTsSubsystem {
 
     /*-------------------------------- Generic Subsystem Functions --------------------------------*/
 
+    /**
+     * Sends held back controls and draws the segments.
+     *
+     * <p>Subclasses that override this must call {@code super.periodic()}, or the segments and
+     * rate limited updates stop.
+     */
     @Override
     public void periodic() {
         // This method will be called once per scheduler run
+        if (pendingControl != null
+                && Timer.getFPGATimestamp() - lastUpdateTime >= minUpdatePeriod) {
+            applyControl(pendingControl, pendingControl.getControlInfo());
+        }
+        renderFrame();
     }
 
     @Override
@@ -0,0 +1,573 @@
+/* Copyright (c) 2026 PARTs 3492. All rights reserved. */
+/* This work is licensed under the terms of the license */
+/* found in the root directory of this project. */
+
+package org.parts3492.partslib;
+
+import edu.wpi.first.util.struct.Struct;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * PARTsLogReader - Fast offline reader for .wpilog files written by {@link PARTsLogger}.
+ *
+ * <p>The log is memory mapped and scanned once to build an index of every entry's record offsets
+ * and timestamps. The index is saved next to the log as {@code <log>.idx} and reused as long as the
+ * log is unchanged, so reopening a large log is nearly instant.
+ *
+ * <p>{@code try (PARTsLogReader reader = new PARTsLogReader("match.wpilog")) { ... }}
+ *
+ * <p>Logs must be smaller than 2 GB. This class is meant for post-match work, such as analysis on a
+ * computer or {@link PARTsLogger#compact(String, String)}, not for use in the robot loop.
+ */
+public class PARTsLogReader implements AutoCloseable {
+    private static final int INDEX_MAGIC = 0x50494458; // "PIDX"
+    private static final int INDEX_VERSION = 1;
+
+    private static final int CONTROL_START = 0;
+    private static final int CONTROL_FINISH = 1;
+    private static final int CONTROL_SET_METADATA = 2;
+
+    /** An entry in the log and the location of all of its records. */
+    public static final class EntryInfo {
+        public final String name;
+        public final String type;
+        public String metadata;
+
+        private int count;
+        private long[] timestamps = new long[16];
+        private int[] offsets = new int[16];
+
+        EntryInfo(String name, String type, String metadata) {
+            this.name = name;
+            this.type = type;
+            this.metadata = metadata;
+        }
+
+        private void add(long timestamp, int offset) {
+            if (count == offsets.length) {
+                timestamps = Arrays.copyOf(timestamps, count * 2);
+                offsets = Arrays.copyOf(offsets, count * 2);
+            }
+            timestamps[count] = timestamp;
+            offsets[count] = offset;
+            count++;
+        }
+
+        /** Sorts the records by timestamp if the log wrote any out of order. */
+        private void sortByTimestamp() {
+            for (int i = 1; i < count; i++) {
+                if (timestamps[i] < timestamps[i - 1]) {
+                    long[][] pairs = new long[count][];
+                    for (int j = 0; j < count; j++) {
+                        pairs[j] = new long[] {timestamps[j], offsets[j]};
+                    }
+                    Arrays.sort(pairs, (a, b) -> Long.compare(a[0], b[0]));
+                    for (int j = 0; j < count; j++) {
+                        timestamps[j] = pairs[j][0];
+                        offsets[j] = (int) pairs[j][1];
+                    }
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Gets the number of records for this entry.
+         *
+         * @return The record count.
+         */
+        public int getRecordCount() {
+            return count;
+        }
+
+        /**
+         * Gets the timestamp of a record.
+         *
+         * @param index The record index, in timestamp order.
+         * @return The timestamp in microseconds.
+         */
+        public long getTimestamp(int index) {
+            return timestamps[index];
+        }
+
+        /**
+         * Finds the first record at or after a time.
+         *
+         * @param timestamp The time in microseconds.
+         * @return The record index, or the record count if every record is earlier.
+         */
+        public int lowerBound(long timestamp) {
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (timestamps[mid] < timestamp) low = mid + 1;
+                else high = mid;
+            }
+            return low;
+        }
+    }
+
+    /**
+     * A view of one record in the mapped log.
+     *
+     * <p>The same object is reused for every record passed to a {@link RecordConsumer}; copy out
+     * anything needed after the callback returns.
+     */
+    public final class Record {
+        private EntryInfo entry;
+        private long timestamp;
+        private int payloadOffset;
+        private int payloadSize;
+
+        /**
+         * Points this view at the record starting at an offset.
+         *
+         * @param entry The entry the record belongs to.
+         * @param offset The offset of the record header.
+         */
+        private void load(EntryInfo entry, int offset) {
+            int header = buffer.get(offset) & 0xff;
+            int idLength = (header & 0x3) + 1;
+            int sizeLength = ((header >> 2) & 0x3) + 1;
+            int timestampLength = ((header >> 4) & 0x7) + 1;
+            int position = offset + 1 + idLength;
+            this.entry = entry;
+            payloadSize = (int) readVarInt(position, sizeLength);
+            position += sizeLength;
+            timestamp = readVarInt(position, timestampLength);
+            payloadOffset = position + timestampLength;
+        }
+
+        public EntryInfo getEntry() {
+            return entry;
+        }
+
+        /**
+         * Gets the record timestamp.
+         *
+         * @return The timestamp in microseconds.
+         */
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public int getPayloadSize() {
+            return payloadSize;
+        }
+
+        public boolean getBoolean() {
+            return buffer.get(payloadOffset) != 0;
+        }
+
+        public long getInteger() {
+            return buffer.getLong(payloadOffset);
+        }
+
+        public float getFloat() {
+            return buffer.getFloat(payloadOffset);
+        }
+
+        public double getDouble() {
+            return buffer.getDouble(payloadOffset);
+        }
+
+        public String getString() {
+            return new String(getRaw(), StandardCharsets.UTF_8);
+        }
+
+        public byte[] getRaw() {
+            byte[] bytes = new byte[payloadSize];
+            buffer.get(payloadOffset, bytes);
+            return bytes;
+        }
+
+        /**
+         * Copies the payload into an array without allocating.
+         *
+         * @param bytes The array, at least {@link #getPayloadSize()} long.
+         * @return The payload size.
+         */
+        public int getRaw(byte[] bytes) {
+            buffer.get(payloadOffset, bytes, 0, payloadSize);
+            return payloadSize;
+        }
+
+        public boolean[] getBooleanArray() {
+            boolean[] values = new boolean[payloadSize];
+            for (int i = 0; i < values.length; i++) values[i] = buffer.get(payloadOffset + i) != 0;
+            return values;
+        }
+
+        public long[] getIntegerArray() {
+            long[] values = new long[payloadSize / 8];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = buffer.getLong(payloadOffset + i * 8);
+            }
+            return values;
+        }
+
+        public double[] getDoubleArray() {
+            double[] values = new double[payloadSize / 8];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = buffer.getDouble(payloadOffset + i * 8);
+            }
+            return values;
+        }
+
+        /**
+         * Gets the payload as a read-only little endian buffer.
+         *
+         * @return The payload.
+         */
+        public ByteBuffer getPayload() {
+            return buffer.slice(payloadOffset, payloadSize)
+                    .asReadOnlyBuffer()
+                    .order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        /**
+         * Unpacks a struct value.
+         *
+         * @param <T> The struct type.
+         * @param struct The struct serializer, e.g. {@code Pose2d.struct}.
+         * @return The value.
+         */
+        public <T> T getStruct(Struct<T> struct) {
+            return struct.unpack(getPayload());
+        }
+    }
+
+    /** Receives records from a query. */
+    @FunctionalInterface
+    public interface RecordConsumer {
+        void accept(Record record);
+    }
+
+    private final File file;
+    private final RandomAccessFile randomAccessFile;
+    private final MappedByteBuffer buffer;
+    private final int dataStart;
+    private final Map<String, EntryInfo> entries = new LinkedHashMap<>();
+    private final Record record = new Record();
+
+    /**
+     * Opens a log, loading its index or building and saving one if needed.
+     *
+     * @param filename The .wpilog file.
+     * @throws IOException If the file cannot be read or is not a wpilog.
+     */
+    public PARTsLogReader(String filename) throws IOException {
+        this(filename, true);
+    }
+
+    /**
+     * Opens a log.
+     *
+     * <p>Without an index, nothing is kept per record and no {@code <log>.idx} is written. Only
+     * {@link #forEachRecord(RecordConsumer)} reads records then, and the entries are known once it
+     * has run.
+     *
+     * @param filename The .wpilog file.
+     * @param useIndex Loads the index, or builds and saves one if needed.
+     * @throws IOException If the file cannot be read or is not a wpilog.
+     */
+    public PARTsLogReader(String filename, boolean useIndex) throws IOException {
+        file = new File(filename);
+        randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = randomAccessFile.getChannel();
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Log is too large to map: " + filename);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            dataStart = readHeader();
+            if (useIndex && !loadIndex()) {
+                buildIndex();
+                saveIndex();
+            }
+        } catch (IOException e) {
+            randomAccessFile.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Checks the file header.
+     *
+     * @return The offset of the first record.
+     * @throws IOException If the file is not a supported wpilog.
+     */
+    private int readHeader() throws IOException {
+        if (buffer.limit() < 12
+                || buffer.get(0) != 'W'
+                || buffer.get(1) != 'P'
+                || buffer.get(2) != 'I'
+                || buffer.get(3) != 'L'
+                || buffer.get(4) != 'O'
+                || buffer.get(5) != 'G') {
+            throw new IOException("Not a wpilog file: " + file);
+        }
+        if ((buffer.getShort(6) & 0xffff) < 0x0100) {
+            throw new IOException("Unsupported wpilog version: " + file);
+        }
+        return 12 + buffer.getInt(8);
+    }
+
+    /**
+     * Reads a little endian unsigned integer of 1 to 8 bytes.
+     *
+     * @param offset The offset.
+     * @param length The length in bytes.
+     * @return The value.
+     */
+    private long readVarInt(int offset, int length) {
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            value |= (buffer.get(offset + i) & 0xffL) << (i * 8);
+        }
+        return value;
+    }
+
+    /**
+     * Reads a length prefixed UTF-8 string from a control record.
+     *
+     * @param offset The offset of the length.
+     * @return The string.
+     */
+    private String readControlString(int offset) {
+        byte[] bytes = new byte[buffer.getInt(offset)];
+        buffer.get(offset + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Scans every record once and records where each entry's data is. */
+    private void buildIndex() {
+        scan(null);
+        for (EntryInfo info : entries.values()) info.sortByTimestamp();
+    }
+
+    /**
+     * Scans every record once, in file order.
+     *
+     * @param consumer Receives each record, or null to add the records to the index instead.
+     */
+    private void scan(RecordConsumer consumer) {
+        EntryInfo[] active = new EntryInfo[64];
+        int offset = dataStart;
+        int end = buffer.limit();
+        while (offset < end) {
+            int header = buffer.get(offset) & 0xff;
+            int idLength = (header & 0x3) + 1;
+            int sizeLength = ((header >> 2) & 0x3) + 1;
+            int timestampLength = ((header >> 4) & 0x7) + 1;
+            int headerLength = 1 + idLength + sizeLength + timestampLength;
+            if (offset + headerLength > end) break;
+
+            int id = (int) readVarInt(offset + 1, idLength);
+            int size = (int) readVarInt(offset + 1 + idLength, sizeLength);
+            long timestamp = readVarInt(offset + 1 + idLength + sizeLength, timestampLength);
+            int payload = offset + headerLength;
+            if (size < 0 || payload + size > end) break; // Truncated final record.
+
+            if (id != 0) {
+                if (id < active.length && active[id] != null) {
+                    if (consumer == null) {
+                        active[id].add(timestamp, offset);
+                    } else {
+                        record.load(active[id], offset);
+                        consumer.accept(record);
+                    }
+                }
+            } else if (size >= 5) {
+                int controlType = buffer.get(payload);
+                int target = buffer.getInt(payload + 1);
+                if (controlType == CONTROL_START) {
+                    String name = readControlString(payload + 5);
+                    int typeOffset = payload + 9 + buffer.getInt(payload + 5);
+                    String type = readControlString(typeOffset);
+                    String metadata = readControlString(typeOffset + 4 + buffer.getInt(typeOffset));
+                    EntryInfo info = entries.get(name);
+                    if (info == null) {
+                        info = new EntryInfo(name, type, metadata);
+                        entries.put(name, info);
+                    }
+                    if (target >= active.length) {
+                        active = Arrays.copyOf(active, Math.max(target + 1, active.length * 2));
+                    }
+                    active[target] = info;
+                } else if (controlType == CONTROL_FINISH) {
+                    if (target < active.length) active[target] = null;
+                } else if (controlType == CONTROL_SET_METADATA) {
+                    if (target < active.length && active[target] != null) {
+                        active[target].metadata = readControlString(payload + 5);
+                    }
+                }
+            }
+            offset = payload + size;
+        }
+    }
+
+    /**
+     * Gets the index file for this log.
+     *
+     * @return The index file.
+     */
+    private File getIndexFile() {
+        return new File(file.getPath() + ".idx");
+    }
+
+    /**
+     * Loads the saved index if it matches the current log.
+     *
+     * @return True if the index was loaded.
+     */
+    private boolean loadIndex() {
+        File indexFile = getIndexFile();
+        if (!indexFile.isFile()) return false;
+        try (DataInputStream in =
+                new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            if (in.readInt() != INDEX_MAGIC
+                    || in.readInt() != INDEX_VERSION
+                    || in.readLong() != file.length()
+                    || in.readLong() != file.lastModified()) {
+                return false;
+            }
+            int entryCount = in.readInt();
+            for (int i = 0; i < entryCount; i++) {
+                EntryInfo info = new EntryInfo(in.readUTF(), in.readUTF(), in.readUTF());
+                int count = in.readInt();
+                info.count = count;
+                info.timestamps = new long[Math.max(count, 1)];
+                info.offsets = new int[Math.max(count, 1)];
+                for (int j = 0; j < count; j++) info.timestamps[j] = in.readLong();
+                for (int j = 0; j < count; j++) info.offsets[j] = in.readInt();
+                entries.put(info.name, info);
+            }
+            return true;
+        } catch (IOException e) {
+            entries.clear();
+            return false;
+        }
+    }
+
+    /**
+     * Saves the index next to the log.
+     *
+     * <p>The index is only a cache, so failing to write it (e.g. a read-only folder) is ignored.
+     */
+    private void saveIndex() {
+        try (DataOutputStream out =
+                new DataOutputStream(
+                        new BufferedOutputStream(new FileOutputStream(getIndexFile())))) {
+            out.writeInt(INDEX_MAGIC);
+            out.writeInt(INDEX_VERSION);
+            out.writeLong(file.length());
+            out.writeLong(file.lastModified());
+            out.writeInt(entries.size());
+            for (EntryInfo info : entries.values()) {
+                out.writeUTF(info.name);
+                out.writeUTF(info.type);
+                out.writeUTF(info.metadata);
+                out.writeInt(info.count);
+                for (int j = 0; j < info.count; j++) out.writeLong(info.timestamps[j]);
+                for (int j = 0; j < info.count; j++) out.writeInt(info.offsets[j]);
+            }
+        } catch (IOException e) {
+            getIndexFile().delete();
+        }
+    }
+
+    /**
+     * Gets every entry in the log, in the order they were started.
+     *
+     * @return The entries.
+     */
+    public Collection<EntryInfo> getEntries() {
+        return Collections.unmodifiableCollection(entries.values());
+    }
+
+    /**
+     * Gets an entry by name.
+     *
+     * @param name The full entry name, e.g. "Drivetrain/Velocity".
+     * @return The entry, or null if the log has no such entry.
+     */
+    public EntryInfo getEntry(String name) {
+        return entries.get(name);
+    }
+
+    /**
+     * Reads one record of an entry.
+     *
+     * @param entry The entry.
+     * @param index The record index, in timestamp order.
+     * @return The shared record view, pointed at the requested record.
+     */
+    public Record getRecord(EntryInfo entry, int index) {
+        record.load(entry, entry.offsets[index]);
+        return record;
+    }
+
+    /**
+     * Streams every record of an entry in timestamp order.
+     *
+     * @param name The entry name.
+     * @param consumer Receives each record.
+     */
+    public void forEach(String name, RecordConsumer consumer) {
+        forEach(name, Long.MIN_VALUE, Long.MAX_VALUE, consumer);
+    }
+
+    /**
+     * Streams the records of an entry in a time range, in timestamp order.
+     *
+     * @param name The entry name.
+     * @param startTime The first timestamp to include, in microseconds.
+     * @param endTime The first timestamp to exclude, in microseconds.
+     * @param consumer Receives each record.
+     */
+    public void forEach(String name, long startTime, long endTime, RecordConsumer consumer) {
+        EntryInfo entry = entries.get(name);
+        if (entry == null) return;
+        for (int i = entry.lowerBound(startTime); i < entry.count; i++) {
+            if (entry.timestamps[i] >= endTime) break;
+            record.load(entry, entry.offsets[i]);
+            consumer.accept(record);
+        }
+    }
+
+    /**
+     * Streams every record of the log in the order it was written, without using the index.
+     *
+     * @param consumer Receives each record.
+     */
+    public void forEachRecord(RecordConsumer consumer) {
+        scan(consumer);
+    }
+
+    @Override
+    public void close() throws IOException {
+        randomAccessFile.close();
+    }
+}
@@ -0,0 +1,332 @@
+/* Copyright (c) 2026 PARTs 3492. All rights reserved. */
+/* This work is licensed under the terms of the license */
+/* found in the root directory of this project. */
+
+package org.parts3492.partslib;
+
+import org.parts3492.partslib.PARTsLogReader.EntryInfo;
+import org.parts3492.partslib.PARTsLogReader.Record;
+import org.parts3492.partslib.PARTsLogReader.RecordConsumer;
+import org.parts3492.partslib.command.IPARTsSubsystem;
+import org.parts3492.partslib.network.PARTsNT;
+
+import edu.wpi.first.util.function.BooleanConsumer;
+import edu.wpi.first.util.struct.Struct;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * PARTsLogReplay - Plays a {@link PARTsLogger} log back into PARTsNT and subsystems.
+ *
+ * <p>Records of every bound entry are merged in timestamp order and handed to their consumers as
+ * the replay clock advances, either in real time, sped up, or as fast as possible.
+ *
+ * <p>{@code PARTsLogReplay replay = new PARTsLogReplay(reader);}
+ *
+ * <p>{@code replay.publishToNetworkTables(); replay.addSubsystem(drivetrain); replay.start();}
+ *
+ * <p>Then call {@link #update()} once per loop.
+ */
+public class PARTsLogReplay {
+    /** Walks the records of one entry and feeds them to its consumers. */
+    private static final class Cursor {
+        final EntryInfo entry;
+        final List<RecordConsumer> consumers = new ArrayList<>();
+        int index;
+
+        Cursor(EntryInfo entry) {
+            this.entry = entry;
+        }
+
+        long nextTimestamp() {
+            return entry.getTimestamp(index);
+        }
+
+        boolean hasNext() {
+            return index < entry.getRecordCount();
+        }
+    }
+
+    private final PARTsLogReader reader;
+    private final Map<String, Cursor> cursors = new HashMap<>();
+    private final Map<String, PARTsNT> networkTables = new HashMap<>();
+    private final PriorityQueue<Cursor> queue =
+            new PriorityQueue<>((a, b) -> Long.compare(a.nextTimestamp(), b.nextTimestamp()));
+
+    private double speed = 1.0;
+    private long logStartTime;
+    private long wallStartTime;
+    private long currentTime = Long.MIN_VALUE;
+    private boolean running = false;
+
+    /**
+     * Creates a new replay.
+     *
+     * @param reader The log to replay.
+     */
+    public PARTsLogReplay(PARTsLogReader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Gets the cursor for an entry, creating it the first time the entry is bound.
+     *
+     * @param name The entry name.
+     * @return The cursor, or null if the log has no such entry.
+     */
+    private Cursor getCursor(String name) {
+        Cursor cursor = cursors.get(name);
+        if (cursor == null) {
+            EntryInfo entry = reader.getEntry(name);
+            if (entry == null || entry.getRecordCount() == 0) return null;
+            cursor = new Cursor(entry);
+            cursors.put(name, cursor);
+        }
+        return cursor;
+    }
+
+    /**
+     * Feeds every record of an entry to a consumer.
+     *
+     * <p>Bind everything before calling {@link #start()}.
+     *
+     * @param name The full entry name, e.g. "Drivetrain/Velocity".
+     * @param consumer Receives the records.
+     * @return True if the log contains the entry.
+     */
+    public boolean bind(String name, RecordConsumer consumer) {
+        Cursor cursor = getCursor(name);
+        if (cursor == null) return false;
+        cursor.consumers.add(consumer);
+        return true;
+    }
+
+    public boolean bindBoolean(String name, BooleanConsumer consumer) {
+        return bind(name, record -> consumer.accept(record.getBoolean()));
+    }
+
+    public boolean bindInteger(String name, LongConsumer consumer) {
+        return bind(name, record -> consumer.accept(record.getInteger()));
+    }
+
+    public boolean bindDouble(String name, DoubleConsumer consumer) {
+        return bind(name, record -> consumer.accept(record.getDouble()));
+    }
+
+    public boolean bindString(String name, Consumer<String> consumer) {
+        return bind(name, record -> consumer.accept(record.getString()));
+    }
+
+    public <T> boolean bindStruct(String name, Struct<T> struct, Consumer<T> consumer) {
+        return bind(name, record -> consumer.accept(record.getStruct(struct)));
+    }
+
+    /**
+     * Lets a subsystem bind its inputs to this replay.
+     *
+     * @param subsystem The subsystem.
+     * @see IPARTsSubsystem#bindReplay(PARTsLogReplay)
+     */
+    public void addSubsystem(IPARTsSubsystem subsystem) {
+        subsystem.bindReplay(this);
+    }
+
+    /**
+     * Republishes every scalar and array entry of the log through {@link PARTsNT}.
+     *
+     * <p>An entry named "Drivetrain/Velocity" goes to key "Velocity" of {@code new
+     * PARTsNT("Drivetrain")}, the same place the robot published it. Entries of other types, such
+     * as structs, are skipped.
+     *
+     * <p>Entries with a source prefix, such as the "NT:" and "DS:" entries that DataLogManager and
+     * managed logging record, are skipped too, so NetworkTables values are not published a
+     * second time under a "PARTs/NT:" table.
+     */
+    public void publishToNetworkTables() {
+        for (EntryInfo entry : reader.getEntries()) {
+            int split = entry.name.indexOf('/');
+            int prefix = entry.name.indexOf(':');
+            if (prefix >= 0 && (split < 0 || prefix < split)) continue;
+            String table = (split > 0) ? entry.name.substring(0, split) : "";
+            String key = entry.name.substring(split + 1);
+            PARTsNT partsNT = networkTables.get(table);
+            if (partsNT == null) {
+                partsNT = new PARTsNT(table);
+                networkTables.put(table, partsNT);
+            }
+            RecordConsumer consumer = getNetworkTablesConsumer(partsNT, key, entry.type);
+            if (consumer != null) bind(entry.name, consumer);
+        }
+    }
+
+    /**
+     * Builds a consumer that republishes records of a log type.
+     *
+     * @param partsNT The PARTsNT instance to publish through.
+     * @param key The key.
+     * @param type The log entry type.
+     * @return The consumer, or null if the type cannot be published.
+     */
+    private RecordConsumer getNetworkTablesConsumer(PARTsNT partsNT, String key, String type) {
+        switch (type) {
+            case "boolean":
+                PARTsNT.EasyBooleanEntry booleanEntry = partsNT.getBooleanHandle(key);
+                return record -> booleanEntry.set(record.getBoolean());
+            case "int64":
+                PARTsNT.EasyIntegerEntry integerEntry = partsNT.getIntegerHandle(key);
+                return record -> integerEntry.set((int) record.getInteger());
+            case "float":
+                PARTsNT.EasyDoubleEntry floatEntry = partsNT.getDoubleHandle(key);
+                return record -> floatEntry.set(record.getFloat());
+            case "double":
+                PARTsNT.EasyDoubleEntry doubleEntry = partsNT.getDoubleHandle(key);
+                return record -> doubleEntry.set(record.getDouble());
+            case "string":
+                PARTsNT.EasyStringEntry stringEntry = partsNT.getStringHandle(key);
+                return record -> stringEntry.set(record.getString());
+            case "boolean[]":
+                PARTsNT.EasyBooleanArrayEntry booleanArrayEntry =
+                        partsNT.getBooleanArrayHandle(key);
+                return record -> booleanArrayEntry.set(record.getBooleanArray());
+            case "int64[]":
+                PARTsNT.EasyIntegerArrayEntry integerArrayEntry =
+                        partsNT.getIntegerArrayHandle(key);
+                return record -> integerArrayEntry.set(record.getIntegerArray());
+            case "double[]":
+                PARTsNT.EasyDoubleArrayEntry doubleArrayEntry = partsNT.getDoubleArrayHandle(key);
+                return record -> doubleArrayEntry.set(record.getDoubleArray());
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Sets the replay speed.
+     *
+     * @param multiplier 1 for real time, 2 for double speed, etc.
+     */
+    public void setSpeed(double multiplier) {
+        if (running) {
+            // Keep the current position when changing speed mid-replay.
+            logStartTime = getTargetTime();
+            wallStartTime = System.nanoTime();
+        }
+        speed = multiplier;
+    }
+
+    /** Starts the replay clock from the first bound record. */
+    public void start() {
+        long first = Long.MAX_VALUE;
+        for (Cursor cursor : cursors.values()) {
+            first = Math.min(first, cursor.entry.getTimestamp(0));
+        }
+        start(first);
+    }
+
+    /**
+     * Starts the replay clock from a log time.
+     *
+     * @param timestamp The log time to start from, in microseconds.
+     */
+    public void start(long timestamp) {
+        seek(timestamp);
+        logStartTime = timestamp;
+        wallStartTime = System.nanoTime();
+        running = true;
+    }
+
+    /** Pauses the replay clock. {@link #start(long)} with {@link #getCurrentTime()} resumes. */
+    public void stop() {
+        running = false;
+    }
+
+    /**
+     * Moves every cursor to the first record at or after a log time.
+     *
+     * @param timestamp The log time in microseconds.
+     */
+    public void seek(long timestamp) {
+        queue.clear();
+        for (Cursor cursor : cursors.values()) {
+            cursor.index = cursor.entry.lowerBound(timestamp);
+            if (cursor.hasNext()) queue.add(cursor);
+        }
+        currentTime = timestamp;
+    }
+
+    /**
+     * Gets the log time the replay clock is at now.
+     *
+     * @return The log time in microseconds.
+     */
+    private long getTargetTime() {
+        return logStartTime + (long) ((System.nanoTime() - wallStartTime) / 1000 * speed);
+    }
+
+    /**
+     * Delivers every record up to the current replay clock time.
+     *
+     * <p>Call once per loop while the replay is running.
+     *
+     * @return The number of records delivered.
+     */
+    public int update() {
+        return running ? advanceTo(getTargetTime()) : 0;
+    }
+
+    /**
+     * Delivers every record up to a log time, regardless of the replay clock.
+     *
+     * @param timestamp The log time in microseconds, inclusive.
+     * @return The number of records delivered.
+     */
+    public int advanceTo(long timestamp) {
+        int delivered = 0;
+        Cursor cursor;
+        while ((cursor = queue.peek()) != null && cursor.nextTimestamp() <= timestamp) {
+            queue.poll();
+            Record record = reader.getRecord(cursor.entry, cursor.index++);
+            for (int i = 0; i < cursor.consumers.size(); i++) {
+                cursor.consumers.get(i).accept(record);
+            }
+            if (cursor.hasNext()) queue.add(cursor);
+            delivered++;
+        }
+        currentTime = Math.max(currentTime, timestamp);
+        return delivered;
+    }
+
+    /**
+     * Delivers every remaining record as fast as possible, e.g. for benchmarking.
+     *
+     * @return The number of records delivered.
+     */
+    public int runToEnd() {
+        return advanceTo(Long.MAX_VALUE);
+    }
+
+    /**
+     * Checks if every bound record has been delivered.
+     *
+     * @return True if the replay is finished.
+     */
+    public boolean isFinished() {
+        return queue.isEmpty();
+    }
+
+    /**
+     * Gets the log time of the last delivered position.
+     *
+     * @return The log time in microseconds.
+     */
+    public long getCurrentTime() {
+        return currentTime;
+    }
+}
@@ -4,22 +4,766 @@
 
 package org.parts3492.partslib;
 
+import org.parts3492.partslib.PARTsLogReader.EntryInfo;
+import org.parts3492.partslib.PARTsLogReader.Record;
+import org.parts3492.partslib.PARTsLogReader.RecordConsumer;
 import org.parts3492.partslib.game.FieldBase;
 
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Pose3d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.util.WPIUtilJNI;
 import edu.wpi.first.util.datalog.BooleanLogEntry;
 import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.DataLogBackgroundWriter;
+import edu.wpi.first.util.datalog.DataLogEntry;
+import edu.wpi.first.util.datalog.DataLogWriter;
+import edu.wpi.first.util.datalog.DoubleArrayLogEntry;
 import edu.wpi.first.util.datalog.DoubleLogEntry;
+import edu.wpi.first.util.datalog.IntegerArrayLogEntry;
+import edu.wpi.first.util.datalog.IntegerLogEntry;
+import edu.wpi.first.util.datalog.ProtobufLogEntry;
 import edu.wpi.first.util.datalog.StringLogEntry;
+import edu.wpi.first.util.datalog.StructArrayLogEntry;
+import edu.wpi.first.util.datalog.StructLogEntry;
+import edu.wpi.first.util.protobuf.Protobuf;
+import edu.wpi.first.util.protobuf.ProtobufBuffer;
+import edu.wpi.first.util.struct.Struct;
 import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import edu.wpi.first.wpilibj2.command.WrapperCommand;
 
 import com.pathplanner.lib.util.PathPlannerLogging;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Objects;
+import java.util.concurrent.locks.LockSupport;
+
 public class PARTsLogger {
+    /**
+     * Preallocated single-producer, single-consumer ring buffer of log records.
+     *
+     * <p>The robot thread fills slots with primitive records and a background thread appends them
+     * to the {@link DataLog}, so a burst of logging can never stall the robot loop. When the buffer
+     * is full, new records are dropped and counted instead of blocking.
+     */
+    private static final class AsyncLogBuffer implements Runnable {
+        private static final byte BOOLEAN = 0;
+        private static final byte DOUBLE = 1;
+        private static final byte STRING = 2;
+        private static final byte DOUBLE_ARRAY = 3;
+        private static final byte INTEGER_ARRAY = 4;
+        private static final byte STRUCT = 5;
+        private static final byte STRUCT_ARRAY = 6;
+        private static final byte PROTOBUF = 7;
+        private static final byte INTEGER = 8;
+
+        private final int mask;
+        private final byte[] types;
+        private final DataLogEntry[] entries;
+        private final long[] timestamps;
+        private final long[] values;
+        private final Object[] objects;
+
+        /** Next slot to be written. Only written by the producer. */
+        private volatile long head;
+
+        /** Next slot to be read. Only written by the writer thread. */
+        private volatile long tail;
+
+        private volatile long droppedRecords;
+        private volatile long writtenRecords;
+        private volatile boolean running = true;
+        private final Thread thread;
+
+        /**
+         * Creates the buffer and starts its writer thread.
+         *
+         * @param capacity The number of records the buffer holds. Rounded up to a power of two.
+         */
+        AsyncLogBuffer(int capacity) {
+            int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+            mask = size - 1;
+            types = new byte[size];
+            entries = new DataLogEntry[size];
+            timestamps = new long[size];
+            values = new long[size];
+            objects = new Object[size];
+
+            thread = new Thread(this, "PARTsLogger");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        /**
+         * Claims the next free slot.
+         *
+         * @return The slot index, or -1 if the buffer is full.
+         */
+        private int claim() {
+            long h = head;
+            if (h - tail > mask) {
+                droppedRecords++;
+                return -1;
+            }
+            return (int) (h & mask);
+        }
+
+        /**
+         * Fills in the common fields of a slot and hands it to the writer thread.
+         *
+         * @param i The slot index.
+         * @param type The record type.
+         * @param entry The entry to append to.
+         */
+        private void commit(int i, byte type, DataLogEntry entry) {
+            types[i] = type;
+            entries[i] = entry;
+            timestamps[i] = WPIUtilJNI.now();
+            head = head + 1;
+        }
+
+        boolean offer(BooleanLogEntry entry, boolean value) {
+            int i = claim();
+            if (i < 0) return false;
+            values[i] = value ? 1 : 0;
+            commit(i, BOOLEAN, entry);
+            return true;
+        }
+
+        boolean offer(DoubleLogEntry entry, double value) {
+            int i = claim();
+            if (i < 0) return false;
+            values[i] = Double.doubleToRawLongBits(value);
+            commit(i, DOUBLE, entry);
+            return true;
+        }
+
+        boolean offer(IntegerLogEntry entry, long value) {
+            int i = claim();
+            if (i < 0) return false;
+            values[i] = value;
+            commit(i, INTEGER, entry);
+            return true;
+        }
+
+        boolean offer(StringLogEntry entry, String value) {
+            return offerObject(entry, STRING, value);
+        }
+
+        /**
+         * Queues a record whose value is an object.
+         *
+         * <p>Arrays must already be copies, since the caller may reuse the original.
+         *
+         * @param entry The entry to append to.
+         * @param type The record type.
+         * @param value The value.
+         * @return True if the record was queued, false if it was dropped.
+         */
+        boolean offerObject(DataLogEntry entry, byte type, Object value) {
+            int i = claim();
+            if (i < 0) return false;
+            objects[i] = value;
+            commit(i, type, entry);
+            return true;
+        }
+
+        /**
+         * Appends every queued record to the log.
+         *
+         * @return True if anything was written.
+         */
+        @SuppressWarnings("unchecked")
+        private boolean drain() {
+            long t = tail;
+            long h = head;
+            if (t == h) return false;
+            for (; t < h; t++) {
+                int i = (int) (t & mask);
+                long timestamp = timestamps[i];
+                switch (types[i]) {
+                    case BOOLEAN:
+                        ((BooleanLogEntry) entries[i]).append(values[i] != 0, timestamp);
+                        break;
+                    case DOUBLE:
+                        ((DoubleLogEntry) entries[i])
+                                .append(Double.longBitsToDouble(values[i]), timestamp);
+                        break;
+                    case INTEGER:
+                        ((IntegerLogEntry) entries[i]).append(values[i], timestamp);
+                        break;
+                    case STRING:
+                        ((StringLogEntry) entries[i]).append((String) objects[i], timestamp);
+                        break;
+                    case DOUBLE_ARRAY:
+                        ((DoubleArrayLogEntry) entries[i]).append((double[]) objects[i], timestamp);
+                        break;
+                    case INTEGER_ARRAY:
+                        ((IntegerArrayLogEntry) entries[i]).append((long[]) objects[i], timestamp);
+                        break;
+                    case STRUCT:
+                        ((StructLogEntry<Object>) entries[i]).append(objects[i], timestamp);
+                        break;
+                    case STRUCT_ARRAY:
+                        ((StructArrayLogEntry<Object>) entries[i])
+                                .append((Object[]) objects[i], timestamp);
+                        break;
+                    case PROTOBUF:
+                        ((ProtobufLogEntry<Object>) entries[i]).append(objects[i], timestamp);
+                        break;
+                    default:
+                        break;
+                }
+                entries[i] = null;
+                objects[i] = null;
+            }
+            writtenRecords += h - tail;
+            tail = h;
+            return true;
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                if (!drain()) LockSupport.parkNanos(2_000_000);
+            }
+            drain();
+        }
+
+        /** Writes everything still queued and stops the writer thread. */
+        void stop() {
+            running = false;
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Decides which calls for a key actually produce a log record.
+     *
+     * <p>{@code new LogPolicy().withDeadband(0.01).withMaxRate(10)} logs a value only when it moved
+     * more than 0.01 since the last record, and at most 10 times per second.
+     *
+     * <p>The checks run in order: every-Nth decimation, then max rate, then change detection.
+     */
+    public static final class LogPolicy {
+        /** Change threshold. Negative disables change detection. */
+        private double deadband = -1;
+
+        private int decimation = 1;
+
+        /** Minimum time between records in microseconds. */
+        private long minPeriod = 0;
+
+        /** Creates a policy that logs every call. */
+        public LogPolicy() {}
+
+        /**
+         * Only logs values that differ from the last logged value.
+         *
+         * @return This policy.
+         */
+        public LogPolicy onChange() {
+            deadband = Math.max(deadband, 0);
+            return this;
+        }
+
+        /**
+         * Only logs numbers that moved more than the deadband since the last logged value.
+         *
+         * <p>Implies {@link #onChange()}. Non-numeric values are compared for equality.
+         *
+         * @param epsilon The deadband.
+         * @return This policy.
+         */
+        public LogPolicy withDeadband(double epsilon) {
+            deadband = Math.abs(epsilon);
+            return this;
+        }
+
+        /**
+         * Only considers every Nth call, starting with the first.
+         *
+         * @param n The decimation factor. 1 considers every call.
+         * @return This policy.
+         */
+        public LogPolicy everyNth(int n) {
+            decimation = Math.max(1, n);
+            return this;
+        }
+
+        /**
+         * Limits how often a record is written.
+         *
+         * @param hertz The maximum record rate. Zero or less removes the limit.
+         * @return This policy.
+         */
+        public LogPolicy withMaxRate(double hertz) {
+            minPeriod = (hertz > 0) ? (long) (1e6 / hertz) : 0;
+            return this;
+        }
+    }
+
+    /** The per-key state a {@link LogPolicy} needs. */
+    private static final class PolicyState {
+        final LogPolicy policy;
+        final boolean fromDefault;
+
+        private long calls;
+        private long lastTime;
+        private long callTime;
+        private boolean hasLast;
+        private double lastNumber;
+        private Object lastObject;
+
+        /** The last logged serialized value. Reused while it is large enough. */
+        private byte[] lastBytes = new byte[0];
+
+        private int lastLength;
+
+        PolicyState(LogPolicy policy, boolean fromDefault) {
+            this.policy = policy;
+            this.fromDefault = fromDefault;
+        }
+
+        /**
+         * Runs the decimation and rate checks.
+         *
+         * <p>The rate slot is only used up by {@link #logged()}, so a suppressed repeat does not
+         * hold back the change after it.
+         *
+         * @return True if the call may be logged as far as timing is concerned.
+         */
+        private boolean timingAllows() {
+            if (calls++ % policy.decimation != 0) return false;
+            if (policy.minPeriod == 0) return true;
+            callTime = WPIUtilJNI.now();
+            return !hasLast || callTime - lastTime >= policy.minPeriod;
+        }
+
+        /**
+         * Records that the checked call is logged.
+         *
+         * @return True.
+         */
+        private boolean logged() {
+            hasLast = true;
+            lastTime = callTime;
+            return true;
+        }
+
+        boolean accept(double value) {
+            if (!timingAllows()) return false;
+            if (hasLast
+                    && policy.deadband >= 0
+                    && Math.abs(value - lastNumber) <= policy.deadband) {
+                return false;
+            }
+            lastNumber = value;
+            return logged();
+        }
+
+        /**
+         * Checks an immutable value, such as a string.
+         *
+         * @param value The value.
+         * @return True if the value should be logged.
+         */
+        boolean accept(Object value) {
+            if (!timingAllows()) return false;
+            if (hasLast && policy.deadband >= 0 && Objects.deepEquals(value, lastObject)) {
+                return false;
+            }
+            lastObject = value;
+            return logged();
+        }
+
+        boolean accept(double[] value) {
+            if (!timingAllows()) return false;
+            if (policy.deadband >= 0) {
+                double[] last = (double[]) lastObject;
+                if (hasLast && withinDeadband(value, last)) return false;
+                if (last == null || last.length != value.length) {
+                    lastObject = last = new double[value.length];
+                }
+                System.arraycopy(value, 0, last, 0, value.length);
+            }
+            return logged();
+        }
+
+        boolean accept(long[] value) {
+            if (!timingAllows()) return false;
+            if (policy.deadband >= 0) {
+                long[] last = (long[]) lastObject;
+                if (hasLast && Arrays.equals(value, last)) return false;
+                if (last == null || last.length != value.length) {
+                    lastObject = last = new long[value.length];
+                }
+                System.arraycopy(value, 0, last, 0, value.length);
+            }
+            return logged();
+        }
+
+        /**
+         * Checks a serialized value, e.g. a packed struct.
+         *
+         * <p>Comparing the bytes instead of the object keeps working when the caller changes a
+         * mutable value in place between calls.
+         *
+         * @param data The serialized value, starting at index 0.
+         * @param length The length of the value, or -1 if it could not be serialized.
+         * @return True if the value should be logged.
+         */
+        boolean accept(ByteBuffer data, int length) {
+            if (!timingAllows()) return false;
+            if (policy.deadband >= 0 && length >= 0) {
+                if (hasLast && sameBytes(data, length)) return false;
+                if (lastBytes.length < length) lastBytes = new byte[length];
+                data.get(0, lastBytes, 0, length);
+                lastLength = length;
+            }
+            return logged();
+        }
+
+        private boolean sameBytes(ByteBuffer data, int length) {
+            if (length != lastLength) return false;
+            for (int i = 0; i < length; i++) {
+                if (data.get(i) != lastBytes[i]) return false;
+            }
+            return true;
+        }
+
+        private boolean withinDeadband(double[] value, double[] last) {
+            if (value.length != last.length) return false;
+            for (int i = 0; i < value.length; i++) {
+                if (!(Math.abs(value[i] - last[i]) <= policy.deadband)) return false;
+            }
+            return true;
+        }
+    }
+
+    /** Execute time histogram bucket upper bounds in nanoseconds. The last bucket is open. */
+    private static final long[] EXECUTE_BUCKETS_NS = {
+        500_000L, 1_000_000L, 2_000_000L, 5_000_000L, 10_000_000L, 20_000_000L
+    };
+
+    /**
+     * Lifecycle and execute timing for the scheduled commands of one name, matching the log keys.
+     */
+    private final class CommandProfile {
+        final String activeKey;
+        final String durationKey;
+        final String runsKey;
+        final String interruptsKey;
+        final String maxExecuteKey;
+        final String histogramKey;
+
+        /** Whether execute() is timed, i.e. a command of this name was wrapped with profile(). */
+        boolean profiled;
+
+        /** The number of commands of this name that are running. */
+        int active;
+
+        long startTime;
+        long runs;
+        long interrupts;
+        long maxExecuteTime;
+
+        /**
+         * Execute counts for the current run per {@link #EXECUTE_BUCKETS_NS} bucket, plus one for
+         * longer calls.
+         */
+        final long[] executeHistogram = new long[EXECUTE_BUCKETS_NS.length + 1];
+
+        CommandProfile(String commandName) {
+            String prefix = "Commands/" + commandName + "/";
+            activeKey = prefix + "Active";
+            durationKey = prefix + "Duration";
+            runsKey = prefix + "Runs";
+            interruptsKey = prefix + "Interrupts";
+            maxExecuteKey = prefix + "MaxExecuteMs";
+            histogramKey = prefix + "ExecuteHistogram";
+        }
+
+        void start() {
+            if (active++ > 0) return;
+            startTime = System.nanoTime();
+            maxExecuteTime = 0;
+            Arrays.fill(executeHistogram, 0);
+            logBoolean(activeKey, true);
+        }
+
+        void recordExecute(long nanos) {
+            int bucket = 0;
+            while (bucket < EXECUTE_BUCKETS_NS.length && nanos > EXECUTE_BUCKETS_NS[bucket]) {
+                bucket++;
+            }
+            executeHistogram[bucket]++;
+            if (nanos > maxExecuteTime) maxExecuteTime = nanos;
+        }
+
+        void end(boolean interrupted) {
+            runs++;
+            logInteger(runsKey, runs);
+            if (interrupted) logInteger(interruptsKey, ++interrupts);
+            // Commands of the same name that overlap count as one active period.
+            if (active > 0 && --active > 0) return;
+            logBoolean(activeKey, false);
+            logDouble(durationKey, (System.nanoTime() - startTime) / 1e9);
+            if (profiled) {
+                logDouble(maxExecuteKey, maxExecuteTime / 1e6);
+                logIntegerArray(histogramKey, executeHistogram);
+            }
+        }
+    }
+
+    /** A command wrapper that times every call to the wrapped command's execute(). */
+    private final class ProfiledCommand extends WrapperCommand {
+        private CommandProfile profile;
+
+        ProfiledCommand(Command command) {
+            super(command);
+        }
+
+        @Override
+        public void execute() {
+            long start = System.nanoTime();
+            m_command.execute();
+            if (profile == null) profile = getCommandProfile(this);
+            profile.recordExecute(System.nanoTime() - start);
+        }
+    }
+
+    /** Names, size caps and compacts the log files written in managed mode. */
+    private static final class ManagedLog implements Runnable {
+        private static final long CHECK_PERIOD_NS = 1_000_000_000L;
+        private static final String COMPACTED_SUFFIX = "_compacted.wpilog";
+
+        private final DataLogBackgroundWriter writer;
+        private final File directory;
+        private final long maxTotalBytes;
+        private final Thread thread;
+        private final ArrayList<File> finishedFiles = new ArrayList<>();
+        private volatile boolean compactFinished = false;
+        private volatile File currentFile;
+        private String baseName;
+
+        ManagedLog(String directory, long maxTotalBytes) {
+            this.directory = new File(directory);
+            this.directory.mkdirs();
+            this.maxTotalBytes = maxTotalBytes;
+
+            // Logs left by earlier runs are finished, the writer never reopens them.
+            File[] files =
+                    this.directory.listFiles(
+                            (dir, name) ->
+                                    name.endsWith(".wpilog") && !name.endsWith(COMPACTED_SUFFIX));
+            if (files != null) finishedFiles.addAll(Arrays.asList(files));
+
+            baseName = "PARTs_" + new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
+            currentFile = getUnusedFile(baseName);
+            writer = new DataLogBackgroundWriter(directory, currentFile.getName());
+            thread = new Thread(this, "PARTsLogManager");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            thread.start();
+        }
+
+        /**
+         * Finds the first unused log file name for a base name.
+         *
+         * @param name The base name.
+         * @return The file.
+         */
+        private File getUnusedFile(String name) {
+            File file = new File(directory, name + ".wpilog");
+            for (int part = 1; file.exists(); part++) {
+                file = new File(directory, name + "_" + part + ".wpilog");
+            }
+            return file;
+        }
+
+        /** Renames the log after the FMS match once one is known. */
+        private void checkMatch() {
+            if (!DriverStation.isFMSAttached()) return;
+            DriverStation.MatchType type = DriverStation.getMatchType();
+            if (type == null || type == DriverStation.MatchType.None) return;
+
+            String matchName =
+                    DriverStation.getEventName()
+                            + "_"
+                            + type.name().charAt(0)
+                            + DriverStation.getMatchNumber();
+            if (DriverStation.getReplayNumber() > 1) {
+                matchName += "_R" + DriverStation.getReplayNumber();
+            }
+            if (!matchName.equals(baseName)) {
+                baseName = matchName;
+                // The writer renames the open file, it does not start a new one.
+                currentFile = getUnusedFile(baseName);
+                writer.setFilename(currentFile.getName());
+            }
+        }
+
+        /** Deletes the oldest finished logs until the directory fits the total size cap. */
+        private void enforceTotalSize() {
+            File[] files = directory.listFiles((dir, name) -> name.endsWith(".wpilog"));
+            if (files == null) return;
+            long total = 0;
+            for (File file : files) total += file.length();
+            if (total <= maxTotalBytes) return;
+
+            Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+            for (File file : files) {
+                if (total <= maxTotalBytes) break;
+                if (file.equals(currentFile)) continue;
+                long length = file.length();
+                if (file.delete()) {
+                    total -= length;
+                    new File(file.getPath() + ".idx").delete();
+                }
+            }
+        }
+
+        /**
+         * Checks if compaction may run, i.e. the robot is disabled and not on the field. Compacting
+         * reads a whole log, so it must not compete with the robot program during a match.
+         *
+         * @return True if compaction may run.
+         */
+        private static boolean canCompact() {
+            return DriverStation.isDisabled() && !DriverStation.isFMSAttached();
+        }
+
+        /**
+         * Compacts the logs of earlier runs while {@link #canCompact()} allows it. Each is replaced
+         * by a file of the same name ending in {@value #COMPACTED_SUFFIX}, so it is only compacted
+         * once.
+         */
+        private void compactFinishedFiles() {
+            while (!finishedFiles.isEmpty() && canCompact()) {
+                File file = finishedFiles.remove(finishedFiles.size() - 1);
+                if (!file.isFile()) continue;
+                String name = file.getName();
+                File compacted =
+                        new File(
+                                directory,
+                                name.substring(0, name.length() - ".wpilog".length())
+                                        + COMPACTED_SUFFIX);
+                File temp = new File(compacted.getPath() + ".tmp");
+                try {
+                    compact(file.getPath(), temp.getPath());
+                    Files.move(
+                            temp.toPath(),
+                            compacted.toPath(),
+                            StandardCopyOption.REPLACE_EXISTING,
+                            StandardCopyOption.ATOMIC_MOVE);
+                    Files.delete(file.toPath());
+                    new File(file.getPath() + ".idx").delete();
+                } catch (IOException e) {
+                    temp.delete();
+                    DriverStation.reportWarning(
+                            "Failed to compact " + file + ": " + e.getMessage(), false);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                if (compactFinished && !finishedFiles.isEmpty()) compactFinishedFiles();
+                checkMatch();
+                if (maxTotalBytes > 0) enforceTotalSize();
+                LockSupport.parkNanos(CHECK_PERIOD_NS);
+            }
+        }
+    }
+
+    /** Drops records that repeat the previous value of their entry. */
+    private static final class CompactionSink implements RecordConsumer {
+        private final DataLog output;
+        private final EntryInfo entry;
+        private int id = 0;
+
+        // Swapped after each written record, so payloads are copied without allocating.
+        private byte[] payload = new byte[64];
+        private byte[] previous = new byte[64];
+        private int previousSize = -1;
+        long dropped = 0;
+
+        CompactionSink(DataLog output, EntryInfo entry) {
+            this.output = output;
+            this.entry = entry;
+        }
+
+        @Override
+        public void accept(Record record) {
+            int size = record.getPayloadSize();
+            if (payload.length < size) payload = new byte[Math.max(size, payload.length * 2)];
+            record.getRaw(payload);
+            if (size == previousSize && Arrays.equals(payload, 0, size, previous, 0, size)) {
+                dropped++;
+                return;
+            }
+            if (id == 0) {
+                id = output.start(entry.name, entry.type, entry.metadata, record.getTimestamp());
+            }
+            output.appendRaw(id, payload, 0, size, record.getTimestamp());
+            byte[] written = payload;
+            payload = previous;
+            previous = written;
+            previousSize = size;
+        }
+    }
+
     private static DataLog log;
+    private static AsyncLogBuffer asyncBuffer;
+    private static ManagedLog managedLog;
     private String name = "";
     private boolean loggingEnabled = false;
 
+    private final HashMap<String, BooleanLogEntry> booleanEntries = new HashMap<>();
+    private final HashMap<String, DoubleLogEntry> doubleEntries = new HashMap<>();
+    private final HashMap<String, IntegerLogEntry> integerEntries = new HashMap<>();
+    private final HashMap<String, StringLogEntry> stringEntries = new HashMap<>();
+    private final HashMap<String, DoubleArrayLogEntry> doubleArrayEntries = new HashMap<>();
+    private final HashMap<String, IntegerArrayLogEntry> integerArrayEntries = new HashMap<>();
+    private final HashMap<String, StructLogEntry<?>> structEntries = new HashMap<>();
+    private final HashMap<String, StructArrayLogEntry<?>> structArrayEntries = new HashMap<>();
+    private final HashMap<String, ProtobufLogEntry<?>> protobufEntries = new HashMap<>();
+
+    /** Reused for packing struct values. */
+    private ByteBuffer structBuffer = ByteBuffer.allocate(0);
+
+    /** Reused for serializing protobuf values of keys with a policy. */
+    private final HashMap<String, ProtobufBuffer<?, ?>> protobufBuffers = new HashMap<>();
+
+    private final HashMap<String, PolicyState> policyStates = new HashMap<>();
+
+    private final HashMap<String, CommandProfile> commandProfiles = new HashMap<>();
+    private LogPolicy defaultPolicy;
+
     /**
      * Create a new PARTsLogger.
      *
@@ -90,11 +834,10 @@ public class PARTsLogger {
 
     private void instantiate(boolean allowLogging) {
         loggingEnabled = allowLogging;
-        if (loggingEnabled) {
+        if (loggingEnabled && log == null) {
             // Starts recording to data log
             DataLogManager.start();
-
-            if (log == null) log = DataLogManager.getLog();
+            log = DataLogManager.getLog();
         }
     }
 
@@ -108,30 +851,709 @@ public class PARTsLogger {
         instantiate(false);
     }
 
+    /**
+     * Enables asynchronous logging with room for 8192 queued records.
+     *
+     * @see #enableAsyncLogging(int)
+     */
+    public static void enableAsyncLogging() {
+        enableAsyncLogging(8192);
+    }
+
+    /**
+     * Enables asynchronous logging for every PARTsLogger.
+     *
+     * <p>Log calls then only copy the value into a preallocated ring buffer, and a background
+     * thread writes the records to the log with the time they were logged at. If the buffer fills
+     * up, records are dropped and counted in {@link #getDroppedRecordCount()}.
+     *
+     * <p>The buffer has a single producer, so log calls must all come from the robot thread.
+     *
+     * @param capacity The number of records the buffer holds. Rounded up to a power of two.
+     */
+    public static void enableAsyncLogging(int capacity) {
+        disableAsyncLogging();
+        asyncBuffer = new AsyncLogBuffer(capacity);
+    }
+
+    /** Writes any queued records and goes back to logging on the calling thread. */
+    public static void disableAsyncLogging() {
+        if (asyncBuffer != null) {
+            AsyncLogBuffer buffer = asyncBuffer;
+            asyncBuffer = null;
+            buffer.stop();
+        }
+    }
+
+    /**
+     * Checks if asynchronous logging is enabled.
+     *
+     * @return True if log calls are queued for the background writer.
+     */
+    public static boolean isAsyncLogging() {
+        return asyncBuffer != null;
+    }
+
+    /**
+     * Gets the number of records dropped because the async buffer was full.
+     *
+     * @return The dropped record count, or 0 if async logging is disabled.
+     */
+    public static long getDroppedRecordCount() {
+        return asyncBuffer == null ? 0 : asyncBuffer.droppedRecords;
+    }
+
+    /**
+     * Gets the number of records written by the async writer thread.
+     *
+     * @return The written record count, or 0 if async logging is disabled.
+     */
+    public static long getWrittenRecordCount() {
+        return asyncBuffer == null ? 0 : asyncBuffer.writtenRecords;
+    }
+
+    /**
+     * Gets the number of records waiting for the async writer thread.
+     *
+     * @return The queued record count, or 0 if async logging is disabled.
+     */
+    public static int getQueuedRecordCount() {
+        AsyncLogBuffer buffer = asyncBuffer;
+        return buffer == null ? 0 : (int) (buffer.head - buffer.tail);
+    }
+
+    /**
+     * Starts logging in managed mode instead of through {@link DataLogManager}.
+     *
+     * <p>Each run of the robot program writes one file. A run is never split into several files,
+     * so there is no per-file size cap and no rotation. Once an FMS match is known, the file is
+     * renamed after the event and match, e.g. "CMPTX_Q42.wpilog", and the rest of the run stays
+     * in that file. While the directory is over the total size cap, the oldest logs are deleted.
+     * Like DataLogManager, NetworkTables and DriverStation data are logged as well.
+     *
+     * <p>Must be called before any PARTsLogger enables logging, e.g. first thing in robotInit.
+     *
+     * @param directory The directory to write logs to, e.g. "/u/logs" for a USB stick.
+     * @param maxTotalBytes The total size of all logs in the directory, or 0 for no limit.
+     * @throws IllegalStateException If logging has already started.
+     */
+    public static void startManagedLogging(String directory, long maxTotalBytes) {
+        if (log != null) {
+            throw new IllegalStateException(
+                    "Managed logging must be started before any PARTsLogger enables logging.");
+        }
+        managedLog = new ManagedLog(directory, maxTotalBytes);
+        log = managedLog.writer;
+
+        // Same as DataLogManager.
+        NetworkTableInstance.getDefault().startEntryDataLog(log, "", "NT:");
+        NetworkTableInstance.getDefault().startConnectionDataLog(log, "NTConnection");
+        DriverStation.startDataLog(log);
+    }
+
+    /**
+     * Compacts the logs left in the managed log directory by earlier runs, e.g. the previous
+     * match, in the background. Compacted logs end in "_compacted.wpilog" and replace the
+     * original. The log being written is never compacted, it is finished only when the robot
+     * program stops.
+     *
+     * <p>Compaction runs on a minimum priority thread and only while the robot is disabled and not
+     * attached to the FMS, e.g. in the pits. It pauses between files as soon as that changes.
+     *
+     * @param enabled Enables compaction.
+     * @see #compact(String, String)
+     */
+    public static void setCompactFinishedLogs(boolean enabled) {
+        if (managedLog != null) managedLog.compactFinished = enabled;
+    }
+
+    /**
+     * Gets the file managed logging is writing to.
+     *
+     * @return The file, or null if managed logging is not started.
+     */
+    public static File getManagedLogFile() {
+        return managedLog == null ? null : managedLog.currentFile;
+    }
+
+    /**
+     * Rewrites a log without the records that repeat the previous value of their entry.
+     *
+     * <p>Values that rarely change, like states and flags, are usually most of a log. Tools such
+     * as AdvantageScope hold the last value, so the compacted log plots the same.
+     *
+     * @param inputFile The log to compact. Must not be the log being written.
+     * @param outputFile The compacted log.
+     * @return The number of records dropped.
+     * @throws IOException If a log cannot be read or written.
+     */
+    public static long compact(String inputFile, String outputFile) throws IOException {
+        IdentityHashMap<EntryInfo, CompactionSink> sinks = new IdentityHashMap<>();
+        // Streamed without an index, so memory use does not grow with the log.
+        try (PARTsLogReader reader = new PARTsLogReader(inputFile, false);
+                DataLogWriter writer = new DataLogWriter(outputFile)) {
+            reader.forEachRecord(
+                    record -> {
+                        CompactionSink sink = sinks.get(record.getEntry());
+                        if (sink == null) {
+                            sink = new CompactionSink(writer, record.getEntry());
+                            sinks.put(record.getEntry(), sink);
+                        }
+                        sink.accept(record);
+                    });
+        }
+        long dropped = 0;
+        for (CompactionSink sink : sinks.values()) dropped += sink.dropped;
+        return dropped;
+    }
+
+    /**
+     * Sets the policy for one key of this logger, replacing the default policy for it.
+     *
+     * @param key The key.
+     * @param policy The policy, or null to go back to the default policy.
+     */
+    public void setPolicy(String key, LogPolicy policy) {
+        if (policy == null) policyStates.remove(key);
+        else policyStates.put(key, new PolicyState(policy, false));
+    }
+
+    /**
+     * Sets the policy for every key of this logger that has no policy of its own.
+     *
+     * @param policy The policy, or null to log every call.
+     */
+    public void setDefaultPolicy(LogPolicy policy) {
+        defaultPolicy = policy;
+        policyStates.values().removeIf(state -> state.fromDefault);
+    }
+
+    /**
+     * Gets the policy state for a key.
+     *
+     * @param key The key.
+     * @return The state, or null if the key logs every call.
+     */
+    private PolicyState getPolicyState(String key) {
+        if (policyStates.isEmpty() && defaultPolicy == null) return null;
+        PolicyState state = policyStates.get(key);
+        if (state == null && defaultPolicy != null) {
+            state = new PolicyState(defaultPolicy, true);
+            policyStates.put(key, state);
+        }
+        return state;
+    }
+
+    /**
+     * Builds the full log entry name for a key.
+     *
+     * @param key The key.
+     * @return The key prefixed with this logger's name, if it has one.
+     */
+    private String getEntryName(String key) {
+        return name.length() > 0 ? name + "/" + key : key;
+    }
+
+    /**
+     * Gets the cached log entry for a key, creating it the first time the key is logged.
+     *
+     * <p>Reusing the entry avoids building the name and writing a new start record to the log on
+     * every call.
+     *
+     * @param key The key.
+     * @return The log entry.
+     */
+    private BooleanLogEntry getBooleanEntry(String key) {
+        BooleanLogEntry entry = booleanEntries.get(key);
+        if (entry == null) {
+            entry = new BooleanLogEntry(log, getEntryName(key));
+            booleanEntries.put(key, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Gets the cached log entry for a key, creating it the first time the key is logged.
+     *
+     * @param key The key.
+     * @return The log entry.
+     */
+    private DoubleLogEntry getDoubleEntry(String key) {
+        DoubleLogEntry entry = doubleEntries.get(key);
+        if (entry == null) {
+            entry = new DoubleLogEntry(log, getEntryName(key));
+            doubleEntries.put(key, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Gets the cached log entry for a key, creating it the first time the key is logged.
+     *
+     * @param key The key.
+     * @return The log entry.
+     */
+    private IntegerLogEntry getIntegerEntry(String key) {
+        IntegerLogEntry entry = integerEntries.get(key);
+        if (entry == null) {
+            entry = new IntegerLogEntry(log, getEntryName(key));
+            integerEntries.put(key, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Gets the cached log entry for a key, creating it the first time the key is logged.
+     *
+     * @param key The key.
+     * @return The log entry.
+     */
+    private StringLogEntry getStringEntry(String key) {
+        StringLogEntry entry = stringEntries.get(key);
+        if (entry == null) {
+            entry = new StringLogEntry(log, getEntryName(key));
+            stringEntries.put(key, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Gets the cached log entry for a key, creating it the first time the key is logged.
+     *
+     * @param key The key.
+     * @return The log entry.
+     */
+    private DoubleArrayLogEntry getDoubleArrayEntry(String key) {
+        DoubleArrayLogEntry entry = doubleArrayEntries.get(key);
+        if (entry == null) {
+            entry = new DoubleArrayLogEntry(log, getEntryName(key));
+            doubleArrayEntries.put(key, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Gets the cached log entry for a key, creating it the first time the key is logged.
+     *
+     * @param key The key.
+     * @return The log entry.
+     */
+    private IntegerArrayLogEntry getIntegerArrayEntry(String key) {
+        IntegerArrayLogEntry entry = integerArrayEntries.get(key);
+        if (entry == null) {
+            entry = new IntegerArrayLogEntry(log, getEntryName(key));
+            integerArrayEntries.put(key, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Gets the cached log entry for a key, creating it the first time the key is logged.
+     *
+     * <p>A key keeps the struct type it was first logged with.
+     *
+     * @param <T> The struct type.
+     * @param key The key.
+     * @param struct The struct serializer.
+     * @return The log entry.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> StructLogEntry<T> getStructEntry(String key, Struct<T> struct) {
+        StructLogEntry<T> entry = (StructLogEntry<T>) structEntries.get(key);
+        if (entry == null) {
+            entry = StructLogEntry.create(log, getEntryName(key), struct);
+            structEntries.put(key, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Gets the cached log entry for a key, creating it the first time the key is logged.
+     *
+     * <p>A key keeps the struct type it was first logged with.
+     *
+     * @param <T> The struct type.
+     * @param key The key.
+     * @param struct The struct serializer.
+     * @return The log entry.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> StructArrayLogEntry<T> getStructArrayEntry(String key, Struct<T> struct) {
+        StructArrayLogEntry<T> entry = (StructArrayLogEntry<T>) structArrayEntries.get(key);
+        if (entry == null) {
+            entry = StructArrayLogEntry.create(log, getEntryName(key), struct);
+            structArrayEntries.put(key, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Gets the cached log entry for a key, creating it the first time the key is logged.
+     *
+     * <p>A key keeps the message type it was first logged with.
+     *
+     * @param <T> The value type.
+     * @param key The key.
+     * @param proto The protobuf serializer.
+     * @return The log entry.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> ProtobufLogEntry<T> getProtobufEntry(String key, Protobuf<T, ?> proto) {
+        ProtobufLogEntry<T> entry = (ProtobufLogEntry<T>) protobufEntries.get(key);
+        if (entry == null) {
+            entry = ProtobufLogEntry.create(log, getEntryName(key), proto);
+            protobufEntries.put(key, entry);
+        }
+        return entry;
+    }
+
     public boolean logBoolean(String key, boolean b) {
         if (loggingEnabled) {
-            new BooleanLogEntry(log, name.length() > 0 ? String.format("%s/%s", name, key) : key)
-                    .append(b);
+            PolicyState policy = getPolicyState(key);
+            if (policy != null && !policy.accept(b ? 1.0 : 0.0)) return false;
+            BooleanLogEntry entry = getBooleanEntry(key);
+            if (asyncBuffer != null) return asyncBuffer.offer(entry, b);
+            entry.append(b);
             return true;
         } else return false;
     }
 
     public boolean logDouble(String key, double d) {
         if (loggingEnabled) {
-            new DoubleLogEntry(log, name.length() > 0 ? String.format("%s/%s", name, key) : key)
-                    .append(d);
+            PolicyState policy = getPolicyState(key);
+            if (policy != null && !policy.accept(d)) return false;
+            DoubleLogEntry entry = getDoubleEntry(key);
+            if (asyncBuffer != null) return asyncBuffer.offer(entry, d);
+            entry.append(d);
+            return true;
+        } else return false;
+    }
+
+    /**
+     * Logs an integer.
+     *
+     * @param key The key.
+     * @param i The value.
+     * @return True if the value was logged.
+     */
+    public boolean logInteger(String key, long i) {
+        if (loggingEnabled) {
+            PolicyState policy = getPolicyState(key);
+            if (policy != null && !policy.accept((double) i)) return false;
+            IntegerLogEntry entry = getIntegerEntry(key);
+            if (asyncBuffer != null) return asyncBuffer.offer(entry, i);
+            entry.append(i);
             return true;
         } else return false;
     }
 
     public boolean logString(String key, String s) {
         if (loggingEnabled) {
-            new StringLogEntry(log, name.length() > 0 ? String.format("%s/%s", name, key) : key)
-                    .append(s);
+            PolicyState policy = getPolicyState(key);
+            if (policy != null && !policy.accept((Object) s)) return false;
+            StringLogEntry entry = getStringEntry(key);
+            if (asyncBuffer != null) return asyncBuffer.offer(entry, s);
+            entry.append(s);
+            return true;
+        } else return false;
+    }
+
+    /**
+     * Logs a double array.
+     *
+     * <p>In async mode the array is copied, so the caller may reuse it right away.
+     *
+     * @param key The key.
+     * @param values The values.
+     * @return True if the values were logged.
+     */
+    public boolean logDoubleArray(String key, double[] values) {
+        if (loggingEnabled) {
+            PolicyState policy = getPolicyState(key);
+            if (policy != null && !policy.accept(values)) return false;
+            DoubleArrayLogEntry entry = getDoubleArrayEntry(key);
+            if (asyncBuffer != null) {
+                return asyncBuffer.offerObject(
+                        entry, AsyncLogBuffer.DOUBLE_ARRAY, Arrays.copyOf(values, values.length));
+            }
+            entry.append(values);
+            return true;
+        } else return false;
+    }
+
+    /**
+     * Logs an integer array.
+     *
+     * <p>In async mode the array is copied, so the caller may reuse it right away.
+     *
+     * @param key The key.
+     * @param values The values.
+     * @return True if the values were logged.
+     */
+    public boolean logIntegerArray(String key, long[] values) {
+        if (loggingEnabled) {
+            PolicyState policy = getPolicyState(key);
+            if (policy != null && !policy.accept(values)) return false;
+            IntegerArrayLogEntry entry = getIntegerArrayEntry(key);
+            if (asyncBuffer != null) {
+                return asyncBuffer.offerObject(
+                        entry, AsyncLogBuffer.INTEGER_ARRAY, Arrays.copyOf(values, values.length));
+            }
+            entry.append(values);
             return true;
         } else return false;
     }
 
+    /**
+     * Packs a struct value into the reused struct buffer.
+     *
+     * @param <T> The struct type.
+     * @param struct The struct serializer.
+     * @param value The value.
+     * @return The buffer, positioned after the packed value.
+     */
+    private <T> ByteBuffer packStruct(Struct<T> struct, T value) {
+        ByteBuffer buffer = getStructBuffer(struct.getSize());
+        struct.pack(buffer, value);
+        return buffer;
+    }
+
+    /**
+     * Packs struct values one after another into the reused struct buffer.
+     *
+     * @param <T> The struct type.
+     * @param struct The struct serializer.
+     * @param values The values.
+     * @return The buffer, positioned after the packed values.
+     */
+    private <T> ByteBuffer packStructs(Struct<T> struct, T[] values) {
+        ByteBuffer buffer = getStructBuffer(struct.getSize() * values.length);
+        for (T value : values) struct.pack(buffer, value);
+        return buffer;
+    }
+
+    /**
+     * Serializes a protobuf value with the key's reused buffer, for change detection.
+     *
+     * @param <T> The value type.
+     * @param key The key.
+     * @param proto The protobuf serializer.
+     * @param value The value.
+     * @return The buffer, positioned after the serialized value, or null if serializing failed.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> ByteBuffer packProtobuf(String key, Protobuf<T, ?> proto, T value) {
+        ProtobufBuffer<T, ?> buffer = (ProtobufBuffer<T, ?>) protobufBuffers.get(key);
+        if (buffer == null) {
+            buffer = ProtobufBuffer.create(proto);
+            protobufBuffers.put(key, buffer);
+        }
+        try {
+            return buffer.write(value);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets the reused struct buffer, cleared and large enough for a size.
+     *
+     * @param size The number of bytes needed.
+     * @return The buffer.
+     */
+    private ByteBuffer getStructBuffer(int size) {
+        if (structBuffer.capacity() < size) {
+            structBuffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        structBuffer.clear();
+        return structBuffer;
+    }
+
+    /**
+     * Logs a value as a binary struct record.
+     *
+     * <p>In async mode a copy of the value is queued, so the caller may change a mutable struct
+     * like {@link ChassisSpeeds} right away.
+     *
+     * @param <T> The struct type.
+     * @param key The key.
+     * @param struct The struct serializer, e.g. {@code Pose2d.struct}.
+     * @param value The value.
+     * @return True if the value was logged.
+     */
+    public <T> boolean logStruct(String key, Struct<T> struct, T value) {
+        if (loggingEnabled) {
+            PolicyState policy = getPolicyState(key);
+            ByteBuffer packed = null;
+            if (policy != null || asyncBuffer != null) packed = packStruct(struct, value);
+            if (policy != null && !policy.accept(packed, packed.position())) return false;
+            StructLogEntry<T> entry = getStructEntry(key, struct);
+            if (asyncBuffer != null) {
+                // Copy on this thread, since the caller may change the value before it is written.
+                packed.rewind();
+                return asyncBuffer.offerObject(entry, AsyncLogBuffer.STRUCT, struct.unpack(packed));
+            }
+            entry.append(value);
+            return true;
+        } else return false;
+    }
+
+    /**
+     * Logs a pose as a binary struct record.
+     *
+     * @param key The key.
+     * @param value The pose.
+     * @return True if the value was logged.
+     */
+    public boolean logStruct(String key, Pose2d value) {
+        return logStruct(key, Pose2d.struct, value);
+    }
+
+    /**
+     * Logs a pose as a binary struct record.
+     *
+     * @param key The key.
+     * @param value The pose.
+     * @return True if the value was logged.
+     */
+    public boolean logStruct(String key, Pose3d value) {
+        return logStruct(key, Pose3d.struct, value);
+    }
+
+    /**
+     * Logs chassis speeds as a binary struct record.
+     *
+     * @param key The key.
+     * @param value The chassis speeds.
+     * @return True if the value was logged.
+     */
+    public boolean logStruct(String key, ChassisSpeeds value) {
+        return logStruct(key, ChassisSpeeds.struct, value);
+    }
+
+    /**
+     * Logs an array of values as one binary struct array record.
+     *
+     * <p>In async mode the array and its elements are copied, so the caller may reuse them right
+     * away, e.g. module states that are updated in place.
+     *
+     * @param <T> The struct type.
+     * @param key The key.
+     * @param struct The struct serializer, e.g. {@code SwerveModuleState.struct}.
+     * @param values The values.
+     * @return True if the values were logged.
+     */
+    public <T> boolean logStructArray(String key, Struct<T> struct, T[] values) {
+        if (loggingEnabled) {
+            PolicyState policy = getPolicyState(key);
+            ByteBuffer packed = null;
+            if (policy != null || asyncBuffer != null) packed = packStructs(struct, values);
+            if (policy != null && !policy.accept(packed, packed.position())) return false;
+            StructArrayLogEntry<T> entry = getStructArrayEntry(key, struct);
+            if (asyncBuffer != null) {
+                // Copy on this thread, since the caller may change the elements before they are
+                // written.
+                packed.rewind();
+                T[] copy = Arrays.copyOf(values, values.length);
+                for (int i = 0; i < copy.length; i++) copy[i] = struct.unpack(packed);
+                return asyncBuffer.offerObject(entry, AsyncLogBuffer.STRUCT_ARRAY, copy);
+            }
+            entry.append(values);
+            return true;
+        } else return false;
+    }
+
+    /**
+     * Logs poses as one binary struct array record.
+     *
+     * @param key The key.
+     * @param values The poses.
+     * @return True if the values were logged.
+     */
+    public boolean logStructArray(String key, Pose2d[] values) {
+        return logStructArray(key, Pose2d.struct, values);
+    }
+
+    /**
+     * Logs swerve module states as one binary struct array record.
+     *
+     * @param key The key.
+     * @param values The module states.
+     * @return True if the values were logged.
+     */
+    public boolean logStructArray(String key, SwerveModuleState[] values) {
+        return logStructArray(key, SwerveModuleState.struct, values);
+    }
+
+    /**
+     * Logs swerve module positions as one binary struct array record.
+     *
+     * @param key The key.
+     * @param values The module positions.
+     * @return True if the values were logged.
+     */
+    public boolean logStructArray(String key, SwerveModulePosition[] values) {
+        return logStructArray(key, SwerveModulePosition.struct, values);
+    }
+
+    /**
+     * Logs a value as a binary protobuf record.
+     *
+     * <p>Prefer {@link #logStruct(String, Struct, Object)} when the type has a struct serializer;
+     * struct records are smaller and cheaper to write.
+     *
+     * <p>In async mode the value is queued without copying, so it must not be changed after the
+     * call.
+     *
+     * @param <T> The value type.
+     * @param key The key.
+     * @param proto The protobuf serializer, e.g. {@code Trajectory.proto}.
+     * @param value The value.
+     * @return True if the value was logged.
+     */
+    public <T> boolean logProtobuf(String key, Protobuf<T, ?> proto, T value) {
+        if (loggingEnabled) {
+            PolicyState policy = getPolicyState(key);
+            if (policy != null) {
+                ByteBuffer packed = packProtobuf(key, proto, value);
+                if (!policy.accept(packed, packed == null ? -1 : packed.position())) return false;
+            }
+            ProtobufLogEntry<T> entry = getProtobufEntry(key, proto);
+            if (asyncBuffer != null) {
+                return asyncBuffer.offerObject(entry, AsyncLogBuffer.PROTOBUF, value);
+            }
+            entry.append(value);
+            return true;
+        } else return false;
+    }
+
+    /**
+     * Gets the profile for a command's name, creating it the first time the name is seen.
+     *
+     * @param command The command.
+     * @return The profile.
+     */
+    private CommandProfile getCommandProfile(Command command) {
+        CommandProfile profile = commandProfiles.get(command.getName());
+        if (profile == null) {
+            profile = new CommandProfile(command.getName());
+            commandProfiles.put(command.getName(), profile);
+        }
+        if (command instanceof ProfiledCommand) profile.profiled = true;
+        return profile;
+    }
+
+    /**
+     * Logs command lifecycle events and timing.
+     *
+     * <p>Besides the "Command initialized/interrupted/finished" strings, every command gets binary
+     * records under {@code Commands/<name>/}: Active (true on start, false on end), Duration in
+     * seconds, Runs and Interrupts counts. Commands wrapped with {@link #profile(Command)} also
+     * log MaxExecuteMs and ExecuteHistogram for each run, the count of execute() calls that took up
+     * to 0.5, 1, 2, 5, 10, 20 and over 20 ms.
+     *
+     * <p>Commands with the same name, e.g. two RunCommands, share their records and counts.
+     */
     public void logCommandScheduler() {
 
         // Set the scheduler to log events for command initialize, interrupt, finish
@@ -139,19 +1561,37 @@ public class PARTsLogger {
                 .onCommandInitialize(
                         command -> {
                             logString(command.getName(), "Command initialized");
+                            getCommandProfile(command).start();
                         });
         CommandScheduler.getInstance()
                 .onCommandInterrupt(
                         command -> {
                             logString(command.getName(), "Command interrupted");
+                            getCommandProfile(command).end(true);
                         });
         CommandScheduler.getInstance()
                 .onCommandFinish(
                         command -> {
                             logString(command.getName(), "Command finished");
+                            getCommandProfile(command).end(false);
                         });
     }
 
+    /**
+     * Wraps a command so the time spent in its execute() is measured.
+     *
+     * <p>The scheduler's callbacks run after execute(), so per-command execute time can only be
+     * measured from inside the command. The results are logged by {@link #logCommandScheduler()}
+     * when the command ends. Like any decorator, the original command can no longer be scheduled
+     * on its own.
+     *
+     * @param command The command to profile.
+     * @return The profiled command.
+     */
+    public Command profile(Command command) {
+        return new ProfiledCommand(command);
+    }
+
     public void logPathPlanner() {
         // Logging callback for target robot pose
         PathPlannerLogging.setLogTargetPoseCallback(
@@ -4,10 +4,35 @@
 
 package org.parts3492.partslib;
 
+import edu.wpi.first.networktables.NetworkTableEvent;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.NetworkTableValue;
+import edu.wpi.first.util.function.BooleanConsumer;
 import edu.wpi.first.wpilibj.Preferences;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
 
 /** Manager class for each {@link PARTsPreference}. */
 public class PARTsPreferences {
@@ -17,39 +42,224 @@ public class PARTsPreferences {
      * <p>This class is designed to work with its parent, PARTsPrefrences.
      *
      * <p>It holds the key and type and returns and sets the prefrence value.
+     *
+     * <p>The value is cached locally and refreshed by a NetworkTables listener, so getters never
+     * read from NetworkTables.
+     *
+     * <p>Accessors of another type throw an {@link IllegalArgumentException}, except that number
+     * preferences can be read with any of the number getters.
      */
     public class PARTsPreference {
         public String key;
         public Type type;
 
+        // Written by the NetworkTables listener thread.
+        private volatile boolean booleanValue;
+        private volatile double numberValue;
+        private volatile String stringValue;
+        private volatile boolean queued = false;
+
+        private final Object defaultValue;
+        private final List<Runnable> callbacks = new ArrayList<>();
+        private int listenerHandle;
+
+        // A value in the loaded profile is written once in place of the default, instead of
+        // initializing the default, reading it back and then writing the profile value.
+
         public PARTsPreference(String key, Boolean value) {
             this.key = key;
-            Preferences.initBoolean(key, value);
+            defaultValue = value;
             type = value.getClass();
+            Object profileValue = profile.get(key);
+            if (profileValue instanceof Boolean) {
+                booleanValue = (Boolean) profileValue;
+                Preferences.setBoolean(key, booleanValue);
+            } else {
+                Preferences.initBoolean(key, value);
+                booleanValue = Preferences.getBoolean(key, value);
+            }
+            start();
         }
 
         public PARTsPreference(String key, Integer value) {
             this.key = key;
-            Preferences.initInt(key, value);
+            defaultValue = value;
             type = value.getClass();
+            Object profileValue = profile.get(key);
+            if (profileValue instanceof Number) {
+                numberValue = ((Number) profileValue).intValue();
+                Preferences.setInt(key, (int) numberValue);
+            } else {
+                Preferences.initInt(key, value);
+                numberValue = Preferences.getInt(key, value);
+            }
+            start();
         }
 
         public PARTsPreference(String key, Double value) {
             this.key = key;
-            Preferences.initDouble(key, value);
+            defaultValue = value;
             type = value.getClass();
+            Object profileValue = profile.get(key);
+            if (profileValue instanceof Number) {
+                numberValue = ((Number) profileValue).doubleValue();
+                Preferences.setDouble(key, numberValue);
+            } else {
+                Preferences.initDouble(key, value);
+                numberValue = Preferences.getDouble(key, value);
+            }
+            start();
         }
 
         public PARTsPreference(String key, Float value) {
             this.key = key;
-            Preferences.initFloat(key, value);
+            defaultValue = value;
             type = value.getClass();
+            Object profileValue = profile.get(key);
+            if (profileValue instanceof Number) {
+                numberValue = ((Number) profileValue).floatValue();
+                Preferences.setFloat(key, (float) numberValue);
+            } else {
+                Preferences.initFloat(key, value);
+                numberValue = Preferences.getFloat(key, value);
+            }
+            start();
         }
 
         public PARTsPreference(String key, String value) {
             this.key = key;
-            Preferences.initString(key, value);
+            defaultValue = value;
             type = value.getClass();
+            Object profileValue = profile.get(key);
+            if (profileValue instanceof String) {
+                stringValue = (String) profileValue;
+                Preferences.setString(key, stringValue);
+            } else {
+                Preferences.initString(key, value);
+                stringValue = Preferences.getString(key, value);
+            }
+            start();
+        }
+
+        /** Starts refreshing the cached value from NetworkTables. */
+        private void start() {
+            NetworkTableInstance instance = NetworkTableInstance.getDefault();
+            listenerHandle =
+                    instance.addListener(
+                            Preferences.getNetworkTable().getTopic(key),
+                            EnumSet.of(
+                                    NetworkTableEvent.Kind.kImmediate,
+                                    NetworkTableEvent.Kind.kValueAll),
+                            event -> receive(event.valueData.value));
+        }
+
+        /**
+         * Updates the cached value and queues the callbacks if it changed.
+         *
+         * <p>Runs on the NetworkTables listener thread.
+         *
+         * @param value The received value.
+         */
+        private void receive(NetworkTableValue value) {
+            boolean changed;
+            if (value.isBoolean()) {
+                changed = value.getBoolean() != booleanValue;
+                booleanValue = value.getBoolean();
+            } else if (value.isString()) {
+                changed = !value.getString().equals(stringValue);
+                stringValue = value.getString();
+            } else {
+                double number;
+                if (value.isDouble()) number = value.getDouble();
+                else if (value.isFloat()) number = value.getFloat();
+                else if (value.isInteger()) number = value.getInteger();
+                else return;
+                changed = Double.compare(number, numberValue) != 0;
+                numberValue = number;
+            }
+            if (changed) queueCallbacks();
+        }
+
+        /** Queues the change callbacks, once until they run. */
+        private void queueCallbacks() {
+            if (!queued) {
+                queued = true;
+                pendingChanges.offer(this);
+            }
+        }
+
+        /**
+         * Runs the callback every time the value changes.
+         *
+         * <p>The callback runs from {@link PARTsPreferences#processChanges()}, and can read the new
+         * value with the getters.
+         *
+         * @param callback The callback to run.
+         */
+        public void onChange(Runnable callback) {
+            callbacks.add(callback);
+        }
+
+        /** Runs the change callbacks. */
+        private void runCallbacks() {
+            queued = false;
+            for (int i = 0; i < callbacks.size(); i++) {
+                callbacks.get(i).run();
+            }
+        }
+
+        /**
+         * Sets the value from a profile, writing to NetworkTables only if it changed.
+         *
+         * @param value The profile value. Values of the wrong type are ignored.
+         * @return True if the value changed.
+         */
+        private boolean applyProfileValue(Object value) {
+            if (type == Boolean.class) {
+                if (!(value instanceof Boolean) || (Boolean) value == booleanValue) return false;
+                writeBoolean((Boolean) value);
+            } else if (type == String.class) {
+                if (!(value instanceof String) || value.equals(stringValue)) return false;
+                writeString((String) value);
+            } else if (value instanceof Number) {
+                Number number = (Number) value;
+                if (type == Integer.class) {
+                    if (number.intValue() == (int) numberValue) return false;
+                    writeInteger(number.intValue());
+                } else if (type == Float.class) {
+                    if (number.floatValue() == (float) numberValue) return false;
+                    writeFloat(number.floatValue());
+                } else {
+                    if (number.doubleValue() == numberValue) return false;
+                    writeDouble(number.doubleValue());
+                }
+            } else {
+                return false;
+            }
+            return true;
+        }
+
+        /**
+         * Gets the cached value boxed as the preference type.
+         *
+         * @return The value.
+         */
+        private Object getValue() {
+            if (type == Boolean.class) return getBoolean();
+            if (type == Integer.class) return getInteger();
+            if (type == Float.class) return getFloat();
+            if (type == Double.class) return getDouble();
+            return getString();
+        }
+
+        /** Sets the preference back to the default value it was created with. */
+        public void reset() {
+            applyProfileValue(defaultValue);
+        }
+
+        /** Stops refreshing the cached value. */
+        public void close() {
+            NetworkTableInstance.getDefault().removeListener(listenerHandle);
         }
 
         public String getKey() {
@@ -60,82 +270,631 @@ public class PARTsPreferences {
             return type;
         }
 
+        /**
+         * Checks that the preference holds values of a type.
+         *
+         * @param expected The type the accessor reads or writes.
+         * @throws IllegalArgumentException If the preference has another type.
+         */
+        private void checkType(Type expected) {
+            if (type != expected) {
+                throw new IllegalArgumentException(
+                        "Preference "
+                                + key
+                                + " is a "
+                                + type.getTypeName()
+                                + ", not a "
+                                + expected.getTypeName()
+                                + ".");
+            }
+        }
+
+        /**
+         * Checks that the preference holds numbers, which can be read as any number type.
+         *
+         * @throws IllegalArgumentException If the preference is a boolean or string.
+         */
+        private void checkNumber() {
+            if (type == Boolean.class || type == String.class) checkType(Number.class);
+        }
+
+        /* --- Getters --- */
+
         public Boolean getBoolean() {
-            return Preferences.getBoolean(key, false);
+            checkType(Boolean.class);
+            return booleanValue;
         }
 
         public Integer getInteger() {
-            return Preferences.getInt(key, 0);
+            checkNumber();
+            return (int) numberValue;
         }
 
         public Double getDouble() {
-            return Preferences.getDouble(key, 0);
+            checkNumber();
+            return numberValue;
         }
 
         public Float getFloat() {
-            return Preferences.getFloat(key, 0);
+            checkNumber();
+            return (float) numberValue;
         }
 
         public String getString() {
-            return Preferences.getString(key, key);
+            checkType(String.class);
+            return (stringValue == null) ? key : stringValue;
         }
 
         /* --- Setters --- */
 
         public void setBoolean(Boolean value) {
+            checkType(Boolean.class);
+            writeBoolean(value);
+        }
+
+        public void setInteger(int value) {
+            checkType(Integer.class);
+            writeInteger(value);
+        }
+
+        public void setDouble(double value) {
+            checkType(Double.class);
+            writeDouble(value);
+        }
+
+        public void setFloat(float value) {
+            checkType(Float.class);
+            writeFloat(value);
+        }
+
+        public void setString(String value) {
+            checkType(String.class);
+            writeString(value);
+        }
+
+        // The typed handles only ever write their own type, so they skip the type checks.
+
+        private void writeBoolean(boolean value) {
+            if (value != booleanValue) queueCallbacks();
+            booleanValue = value;
             Preferences.setBoolean(key, value);
         }
 
-        public void setBoolean(Integer value) {
+        private void writeInteger(int value) {
+            if (value != numberValue) queueCallbacks();
+            numberValue = value;
             Preferences.setInt(key, value);
         }
 
-        public void setBoolean(Double value) {
+        private void writeDouble(double value) {
+            if (Double.compare(value, numberValue) != 0) queueCallbacks();
+            numberValue = value;
             Preferences.setDouble(key, value);
         }
 
-        public void setBoolean(Float value) {
+        private void writeFloat(float value) {
+            if (Double.compare(value, numberValue) != 0) queueCallbacks();
+            numberValue = value;
             Preferences.setFloat(key, value);
         }
 
-        public void setBoolean(String value) {
+        private void writeString(String value) {
+            if (!value.equals(stringValue)) queueCallbacks();
+            stringValue = value;
             Preferences.setString(key, value);
         }
+
+        /**
+         * @deprecated Misnamed. Use {@link #setInteger(int)}.
+         */
+        @Deprecated
+        public void setBoolean(Integer value) {
+            setInteger(value);
+        }
+
+        /**
+         * @deprecated Misnamed. Use {@link #setDouble(double)}.
+         */
+        @Deprecated
+        public void setBoolean(Double value) {
+            setDouble(value);
+        }
+
+        /**
+         * @deprecated Misnamed. Use {@link #setFloat(float)}.
+         */
+        @Deprecated
+        public void setBoolean(Float value) {
+            setFloat(value);
+        }
+
+        /**
+         * @deprecated Misnamed. Use {@link #setString(String)}.
+         */
+        @Deprecated
+        public void setBoolean(String value) {
+            setString(value);
+        }
+    }
+
+    /**
+     * A boolean preference with a primitive getter and setter.
+     *
+     * <p>Only the accessors of its own type exist, so wrong-type access does not compile. It shares
+     * its cached value with every other handle of the same key.
+     */
+    public class BooleanPreference {
+        private final PARTsPreference preference;
+
+        private BooleanPreference(PARTsPreference preference) {
+            this.preference = preference;
+        }
+
+        public String getKey() {
+            return preference.key;
+        }
+
+        public boolean get() {
+            return preference.booleanValue;
+        }
+
+        public void set(boolean value) {
+            preference.writeBoolean(value);
+        }
+
+        /**
+         * Runs the callback with the new value every time the value changes.
+         *
+         * @param callback The callback to run.
+         * @see PARTsPreference#onChange(Runnable)
+         */
+        public void onChange(BooleanConsumer callback) {
+            preference.onChange(() -> callback.accept(get()));
+        }
+
+        /** Sets the preference back to the default value it was created with. */
+        public void reset() {
+            preference.reset();
+        }
+    }
+
+    /**
+     * An integer preference with a primitive getter and setter.
+     *
+     * <p>Only the accessors of its own type exist, so wrong-type access does not compile. It shares
+     * its cached value with every other handle of the same key.
+     */
+    public class IntegerPreference {
+        private final PARTsPreference preference;
+
+        private IntegerPreference(PARTsPreference preference) {
+            this.preference = preference;
+        }
+
+        public String getKey() {
+            return preference.key;
+        }
+
+        public int get() {
+            return (int) preference.numberValue;
+        }
+
+        public void set(int value) {
+            preference.writeInteger(value);
+        }
+
+        /**
+         * Runs the callback with the new value every time the value changes.
+         *
+         * @param callback The callback to run.
+         * @see PARTsPreference#onChange(Runnable)
+         */
+        public void onChange(IntConsumer callback) {
+            preference.onChange(() -> callback.accept(get()));
+        }
+
+        /** Sets the preference back to the default value it was created with. */
+        public void reset() {
+            preference.reset();
+        }
+    }
+
+    /**
+     * A double preference with a primitive getter and setter.
+     *
+     * <p>Only the accessors of its own type exist, so wrong-type access does not compile. It shares
+     * its cached value with every other handle of the same key.
+     */
+    public class DoublePreference {
+        private final PARTsPreference preference;
+
+        private DoublePreference(PARTsPreference preference) {
+            this.preference = preference;
+        }
+
+        public String getKey() {
+            return preference.key;
+        }
+
+        public double get() {
+            return preference.numberValue;
+        }
+
+        public void set(double value) {
+            preference.writeDouble(value);
+        }
+
+        /**
+         * Runs the callback with the new value every time the value changes.
+         *
+         * @param callback The callback to run.
+         * @see PARTsPreference#onChange(Runnable)
+         */
+        public void onChange(DoubleConsumer callback) {
+            preference.onChange(() -> callback.accept(get()));
+        }
+
+        /** Sets the preference back to the default value it was created with. */
+        public void reset() {
+            preference.reset();
+        }
+    }
+
+    /**
+     * A float preference with a primitive getter and setter.
+     *
+     * <p>Only the accessors of its own type exist, so wrong-type access does not compile. It shares
+     * its cached value with every other handle of the same key.
+     */
+    public class FloatPreference {
+        private final PARTsPreference preference;
+
+        private FloatPreference(PARTsPreference preference) {
+            this.preference = preference;
+        }
+
+        public String getKey() {
+            return preference.key;
+        }
+
+        public float get() {
+            return (float) preference.numberValue;
+        }
+
+        public void set(float value) {
+            preference.writeFloat(value);
+        }
+
+        /**
+         * Runs the callback with the new value every time the value changes.
+         *
+         * @param callback The callback to run.
+         * @see PARTsPreference#onChange(Runnable)
+         */
+        public void onChange(DoubleConsumer callback) {
+            preference.onChange(() -> callback.accept(get()));
+        }
+
+        /** Sets the preference back to the default value it was created with. */
+        public void reset() {
+            preference.reset();
+        }
     }
 
+    /**
+     * A string preference with a typed getter and setter.
+     *
+     * <p>Only the accessors of its own type exist, so wrong-type access does not compile. It shares
+     * its cached value with every other handle of the same key.
+     */
+    public class StringPreference {
+        private final PARTsPreference preference;
+
+        private StringPreference(PARTsPreference preference) {
+            this.preference = preference;
+        }
+
+        public String getKey() {
+            return preference.key;
+        }
+
+        public String get() {
+            return preference.getString();
+        }
+
+        public void set(String value) {
+            preference.writeString(value);
+        }
+
+        /**
+         * Runs the callback with the new value every time the value changes.
+         *
+         * @param callback The callback to run.
+         * @see PARTsPreference#onChange(Runnable)
+         */
+        public void onChange(Consumer<String> callback) {
+            preference.onChange(() -> callback.accept(get()));
+        }
+
+        /** Sets the preference back to the default value it was created with. */
+        public void reset() {
+            preference.reset();
+        }
+    }
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /** Every PARTsPreferences instance, so {@link #processAllChanges()} can reach them. */
+    private static final List<PARTsPreferences> instances = new ArrayList<>();
+
+    /** The loaded profile, also applied to preferences added after it was loaded. */
+    private static Map<String, Object> profile = Collections.emptyMap();
+
+    /** Changed preferences, filled from the NetworkTables listener thread. */
+    private final Queue<PARTsPreference> pendingChanges = new ConcurrentLinkedQueue<>();
+
+    /** Every preference by its full key, across all PARTsPreferences instances. */
+    private static final Map<String, PARTsPreference> registry = new LinkedHashMap<>();
+
+    /** This instance's preferences by name, without the prefix. */
+    private final Map<String, PARTsPreference> preferenceIndex = new HashMap<>();
+
+    private final String prefix;
+
     public ArrayList<PARTsPreference> prefrences;
 
+    /** Create a new PARTsPreferences whose keys are used as is. */
     public PARTsPreferences() {
+        this("");
+    }
+
+    /**
+     * Create a new PARTsPreferences whose keys are prefixed with the following name.
+     *
+     * <p>E.g. preference "kP" of "Drivetrain" has the key "Drivetrain/kP". A value saved on the
+     * robot under the old unprefixed key "kP" is moved to "Drivetrain/kP" the first time the
+     * preference is added, unless an unprefixed instance still uses "kP".
+     *
+     * @param name The name to prefix keys with.
+     */
+    public PARTsPreferences(String name) {
+        prefix = name.isEmpty() ? "" : name + "/";
         prefrences = new ArrayList<>();
+        instances.add(this);
     }
 
-    public PARTsPreference addPreference(String name, Boolean value) {
-        PARTsPreference pref = new PARTsPreference(name, value);
-        prefrences.add(pref);
+    /**
+     * Create a new PARTsPreferences whose keys are prefixed with the object's class name.
+     *
+     * @param o The object to use the class name of.
+     */
+    public PARTsPreferences(Object o) {
+        this(o.getClass().getSimpleName());
+    }
+
+    /**
+     * Gets a preference of this instance, or creates and registers it.
+     *
+     * <p>Preferences with the same key are shared, even between instances and typed handles.
+     *
+     * @param name The name of the preference, without the prefix.
+     * @param type The value type.
+     * @param factory Creates the preference from its full key.
+     * @return The preference.
+     * @throws IllegalArgumentException If the preference exists with another type.
+     */
+    private PARTsPreference add(
+            String name, Type type, Function<String, PARTsPreference> factory) {
+        PARTsPreference pref = preferenceIndex.get(name);
+        if (pref == null) {
+            String key = prefix + name;
+            pref = registry.get(key);
+            if (pref == null) {
+                if (!prefix.isEmpty() && !registry.containsKey(name)) {
+                    migrateLegacyKey(name, key, type);
+                }
+                pref = factory.apply(key);
+                registry.put(key, pref);
+            }
+        }
+        if (pref.type != type) {
+            throw new IllegalArgumentException(
+                    "Preference "
+                            + pref.key
+                            + " is a "
+                            + pref.type.getTypeName()
+                            + ", not a "
+                            + type.getTypeName()
+                            + ".");
+        }
+        if (preferenceIndex.put(name, pref) == null) prefrences.add(pref);
         return pref;
     }
 
+    /**
+     * Moves a value saved under a key without the prefix, from before keys were prefixed, to its
+     * prefixed key, so tuned values on the robot are kept.
+     *
+     * @param legacyKey The unprefixed key, e.g. "kP".
+     * @param key The prefixed key, e.g. "Drivetrain/kP".
+     * @param type The value type.
+     */
+    private static void migrateLegacyKey(String legacyKey, String key, Type type) {
+        if (Preferences.containsKey(key) || !Preferences.containsKey(legacyKey)) return;
+        if (type == Boolean.class) {
+            Preferences.setBoolean(key, Preferences.getBoolean(legacyKey, false));
+        } else if (type == Integer.class) {
+            Preferences.setInt(key, Preferences.getInt(legacyKey, 0));
+        } else if (type == Double.class) {
+            Preferences.setDouble(key, Preferences.getDouble(legacyKey, 0));
+        } else if (type == Float.class) {
+            Preferences.setFloat(key, Preferences.getFloat(legacyKey, 0));
+        } else {
+            Preferences.setString(key, Preferences.getString(legacyKey, ""));
+        }
+        Preferences.remove(legacyKey);
+    }
+
+    public PARTsPreference addPreference(String name, Boolean value) {
+        return add(name, Boolean.class, key -> new PARTsPreference(key, value));
+    }
+
     public PARTsPreference addPreference(String name, Integer value) {
-        PARTsPreference pref = new PARTsPreference(name, value);
-        prefrences.add(pref);
-        return pref;
+        return add(name, Integer.class, key -> new PARTsPreference(key, value));
     }
 
     public PARTsPreference addPreference(String name, Double value) {
-        PARTsPreference pref = new PARTsPreference(name, value);
-        prefrences.add(pref);
-        return pref;
+        return add(name, Double.class, key -> new PARTsPreference(key, value));
     }
 
     public PARTsPreference addPreference(String name, Float value) {
-        PARTsPreference pref = new PARTsPreference(name, value);
-        prefrences.add(pref);
-        return pref;
+        return add(name, Float.class, key -> new PARTsPreference(key, value));
     }
 
     public PARTsPreference addPreference(String name, String value) {
-        PARTsPreference pref = new PARTsPreference(name, value);
-        prefrences.add(pref);
-        return pref;
+        return add(name, String.class, key -> new PARTsPreference(key, value));
+    }
+
+    public BooleanPreference addBooleanPreference(String name, boolean value) {
+        return new BooleanPreference(addPreference(name, (Boolean) value));
+    }
+
+    public IntegerPreference addIntegerPreference(String name, int value) {
+        return new IntegerPreference(addPreference(name, (Integer) value));
+    }
+
+    public DoublePreference addDoublePreference(String name, double value) {
+        return new DoublePreference(addPreference(name, (Double) value));
+    }
+
+    public FloatPreference addFloatPreference(String name, float value) {
+        return new FloatPreference(addPreference(name, (Float) value));
+    }
+
+    public StringPreference addStringPreference(String name, String value) {
+        return new StringPreference(addPreference(name, value));
+    }
+
+    /**
+     * Runs the change callbacks of every preference that changed since the last call.
+     *
+     * <p>Nothing is read from NetworkTables here, so unchanged preferences cost nothing.
+     */
+    public void processChanges() {
+        PARTsPreference pref;
+        while ((pref = pendingChanges.poll()) != null) {
+            pref.runCallbacks();
+        }
+    }
+
+    /**
+     * Runs the change callbacks of every PARTsPreferences instance.
+     *
+     * <p>Call this once at the start of each loop, e.g. at the top of {@code robotPeriodic()}.
+     */
+    public static void processAllChanges() {
+        for (int i = 0; i < instances.size(); i++) {
+            instances.get(i).processChanges();
+        }
+    }
+
+    // * -------- REGISTRY FUNCTIONS -------- *//
+
+    /**
+     * Gets a preference of this instance.
+     *
+     * @param name The name of the preference, without the prefix.
+     * @return The preference, or null if it has not been added.
+     */
+    public PARTsPreference getPreference(String name) {
+        return preferenceIndex.get(name);
+    }
+
+    /**
+     * Gets a preference of any PARTsPreferences instance.
+     *
+     * @param key The full key of the preference, e.g. "Drivetrain/kP".
+     * @return The preference, or null if it has not been added.
+     */
+    public static PARTsPreference findPreference(String key) {
+        return registry.get(key);
+    }
+
+    /**
+     * Gets every preference of every PARTsPreferences instance, in the order they were added.
+     *
+     * @return The preferences.
+     */
+    public static Collection<PARTsPreference> getAllPreferences() {
+        return Collections.unmodifiableCollection(registry.values());
+    }
+
+    /** Sets every preference back to the default value it was created with. */
+    public static void resetAllPreferences() {
+        for (PARTsPreference pref : registry.values()) {
+            pref.reset();
+        }
+    }
+
+    // * -------- PROFILE FUNCTIONS -------- *//
+
+    /**
+     * Loads a profile file and applies it to every preference.
+     *
+     * <p>Load the profile at the start of robotInit, e.g. "/home/lvuser/competition.json".
+     * Preferences added later start with their profile value instead of their default.
+     *
+     * @param filename The JSON file, as written by {@link #saveProfile(String)}.
+     * @return The number of preferences that changed.
+     * @throws IOException If the file cannot be read. No preference is changed then.
+     */
+    public static int loadProfile(String filename) throws IOException {
+        Map<String, Object> values =
+                objectMapper.readValue(
+                        new File(filename), new TypeReference<LinkedHashMap<String, Object>>() {});
+        return applyProfile(values);
+    }
+
+    /**
+     * Switches every preference to the values of a profile in one pass.
+     *
+     * <p>Only preferences whose value differs are written to NetworkTables. Preferences missing
+     * from the profile keep their value.
+     *
+     * @param values The preference values by key.
+     * @return The number of preferences that changed.
+     */
+    public static int applyProfile(Map<String, Object> values) {
+        profile = new HashMap<>(values);
+        int changed = 0;
+        for (PARTsPreference pref : registry.values()) {
+            Object value = profile.get(pref.key);
+            if (value != null && pref.applyProfileValue(value)) changed++;
+        }
+        return changed;
+    }
+
+    /**
+     * Saves the current value of every preference as a profile.
+     *
+     * <p>The file is written next to the target and then moved over it, so a failed save never
+     * leaves a partial profile behind.
+     *
+     * @param filename The JSON file.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void saveProfile(String filename) throws IOException {
+        Map<String, Object> values = new TreeMap<>();
+        for (PARTsPreference pref : registry.values()) {
+            values.put(pref.key, pref.getValue());
+        }
+        File file = new File(filename);
+        File temp = new File(filename + ".tmp");
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(temp, values);
+        Files.move(
+                temp.toPath(),
+                file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
     }
 }
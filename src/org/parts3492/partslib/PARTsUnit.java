@@ -4,23 +4,104 @@
 
 package org.parts3492.partslib;
 
+import java.util.Objects;
+import java.util.function.DoubleUnaryOperator;
 import java.util.function.Function;
 
 /** PARTsUnit - A unit container to store and convert values. */
 public class PARTsUnit {
 
+    /** The physical quantity a unit measures. Units only convert within one dimension. */
+    public enum Dimension {
+        Angle,
+        Length,
+        Ratio,
+        Velocity,
+        AngularVelocity,
+        Acceleration,
+        Mass
+    }
+
     public enum PARTsUnitType {
         /** Degrees. */
-        Angle, // TODO: change to degree?
-        Radian,
-        Meter,
-        Inch,
-        Foot,
-        Percent,
-        Rotations,
-        MetersPerSecond,
-        Pound,
-        Kilogram
+        Angle(Dimension.Angle, Math.PI / 180.0), // TODO: change to degree?
+        Radian(Dimension.Angle, 1.0),
+        Meter(Dimension.Length, 1.0),
+        Inch(Dimension.Length, 0.0254),
+        Foot(Dimension.Length, 0.3048),
+        Percent(Dimension.Ratio, 1.0),
+        Rotations(Dimension.Angle, 2.0 * Math.PI),
+        MetersPerSecond(Dimension.Velocity, 1.0),
+        Pound(Dimension.Mass, 0.45359237),
+        Kilogram(Dimension.Mass, 1.0),
+        FeetPerSecond(Dimension.Velocity, Foot, 1.0),
+        InchesPerSecond(Dimension.Velocity, Inch, 1.0),
+        DegreesPerSecond(Dimension.AngularVelocity, Angle, 1.0),
+        RadiansPerSecond(Dimension.AngularVelocity, Radian, 1.0),
+        RotationsPerSecond(Dimension.AngularVelocity, Rotations, 1.0),
+        RotationsPerMinute(Dimension.AngularVelocity, Rotations, 60.0),
+        MetersPerSecondSquared(Dimension.Acceleration, Meter, 1.0);
+
+        private final Dimension dimension;
+        private final double baseFactor;
+
+        /**
+         * @param dimension The dimension of the unit.
+         * @param baseFactor The value of one of this unit in the SI unit of its dimension.
+         */
+        PARTsUnitType(Dimension dimension, double baseFactor) {
+            this.dimension = dimension;
+            this.baseFactor = baseFactor;
+        }
+
+        /**
+         * Creates a rate unit from a base unit, e.g. RPM from rotations and 60 seconds.
+         *
+         * @param dimension The dimension of the unit.
+         * @param unit The unit being counted.
+         * @param seconds The time the count is over, in seconds. Squared for accelerations.
+         */
+        PARTsUnitType(Dimension dimension, PARTsUnitType unit, double seconds) {
+            this(
+                    dimension,
+                    unit.baseFactor
+                            / (dimension == Dimension.Acceleration ? seconds * seconds : seconds));
+        }
+
+        /**
+         * Gets the dimension of the unit.
+         *
+         * @return The dimension.
+         */
+        public Dimension getDimension() {
+            return dimension;
+        }
+    }
+
+    private static final int UNIT_COUNT = PARTsUnitType.values().length;
+
+    /**
+     * Conversion factors indexed by {@code [from.ordinal()][to.ordinal()]}, or NaN where the
+     * dimensions differ.
+     */
+    private static final double[][] FACTORS = new double[UNIT_COUNT][UNIT_COUNT];
+
+    static {
+        PARTsUnitType[] types = PARTsUnitType.values();
+        for (PARTsUnitType from : types) {
+            for (PARTsUnitType to : types) {
+                double factor = Double.NaN;
+                if (from.dimension == to.dimension) {
+                    factor = from.baseFactor / to.baseFactor;
+                    // Snap rounding error so e.g. feet to inches is exactly 12.
+                    double rounded = Math.rint(factor);
+                    if (rounded != 0 && Math.abs(factor - rounded) <= 4 * Math.ulp(rounded)) {
+                        factor = rounded;
+                    }
+                }
+                FACTORS[from.ordinal()][to.ordinal()] = factor;
+            }
+        }
     }
 
     private double value;
@@ -73,92 +154,7 @@ public class PARTsUnit {
      * @return Converted unit in double.
      */
     public double to(PARTsUnitType unitType) {
-        String message = "No to type for unit.";
-        switch (this.unitType) {
-            case Angle:
-                switch (unitType) {
-                    case Radian:
-                        return this.value * Math.PI / 180.0;
-                    case Angle:
-                        return this.value;
-                    default:
-                        throw new RuntimeException(message);
-                }
-            case Radian:
-                if (unitType == PARTsUnitType.Angle) return this.value * 180.0 / Math.PI;
-                else if (unitType == this.unitType) return this.value;
-                throw new RuntimeException(message);
-            case Meter:
-                switch (unitType) {
-                    case Inch:
-                        return this.value * 39.3700787;
-                    case Foot:
-                        return this.value * 3.2808399;
-                    case Meter:
-                        return this.value;
-                    default:
-                        throw new RuntimeException(message);
-                }
-            case Inch:
-                switch (unitType) {
-                    case Meter:
-                        return this.value / 39.3700787;
-                    case Foot:
-                        return this.value / 12;
-                    case Inch:
-                        return this.value;
-                    default:
-                        throw new RuntimeException(message);
-                }
-            case Foot:
-                switch (unitType) {
-                    case Meter:
-                        return this.value / 3.2808399;
-                    case Inch:
-                        return this.value * 12;
-                    case Foot:
-                        return this.value;
-                    default:
-                        throw new RuntimeException(message);
-                }
-            case Rotations:
-                switch (unitType) {
-                    case Angle:
-                        return this.value * 360;
-                    case Rotations:
-                        return this.value;
-                    default:
-                        throw new RuntimeException(message);
-                }
-            case Percent:
-                switch (unitType) {
-                    case Percent:
-                        return this.value;
-                    default:
-                        throw new RuntimeException(
-                                message + " Percent cannot not be translated to any other type.");
-                }
-            case Pound:
-                switch (unitType) {
-                    case Kilogram:
-                        return this.value * 0.453592;
-                    case Pound:
-                        return this.value;
-                    default:
-                        throw new RuntimeException(message);
-                }
-            case Kilogram:
-                switch (unitType) {
-                    case Pound:
-                        return this.value * 2.2046226218;
-                    case Kilogram:
-                        return this.value;
-                    default:
-                        throw new RuntimeException(message);
-                }
-            default:
-                throw new RuntimeException(message);
-        }
+        return convert(value, this.unitType, unitType);
     }
 
     /**
@@ -172,8 +168,149 @@ public class PARTsUnit {
         return new PARTsUnit(to(unitType), unitType);
     }
 
+    /**
+     * Creates a {@link org.parts3492.partslib.MutablePARTsUnit MutablePARTsUnit} copy of this unit
+     * that can be updated in place.
+     *
+     * @return The mutable copy.
+     */
+    public MutablePARTsUnit toMutable() {
+        return new MutablePARTsUnit(value, unitType);
+    }
+
+    /**
+     * Gets the factor to multiply a value by to convert it between units.
+     *
+     * @param from The unit the value is in.
+     * @param to The target unit.
+     * @return The conversion factor.
+     * @throws IllegalArgumentException If the units have different dimensions.
+     */
+    public static double getFactor(PARTsUnitType from, PARTsUnitType to) {
+        double factor = FACTORS[from.ordinal()][to.ordinal()];
+        if (Double.isNaN(factor)) {
+            throw new IllegalArgumentException(
+                    "Cannot convert "
+                            + from
+                            + " ("
+                            + from.dimension
+                            + ") to "
+                            + to
+                            + " ("
+                            + to.dimension
+                            + "): dimension mismatch.");
+        }
+        return factor;
+    }
+
+    /**
+     * Converts a value between units without creating a {@link
+     * org.parts3492.partslib.PARTsUnit PARTsUnit}.
+     *
+     * <p>Costs one table lookup and one multiply, so it is safe to call in control loops.
+     *
+     * @param value The value.
+     * @param from The unit the value is in.
+     * @param to The target unit.
+     * @return The converted value.
+     */
+    public static double convert(double value, PARTsUnitType from, PARTsUnitType to) {
+        return value * getFactor(from, to);
+    }
+
+    /**
+     * Creates a primitive converter between two units.
+     *
+     * <p>The factor is looked up once, so applying the converter is a single multiply.
+     *
+     * @param from The unit values are in.
+     * @param to The target unit.
+     * @return The converter.
+     */
+    public static DoubleUnaryOperator converter(PARTsUnitType from, PARTsUnitType to) {
+        double factor = getFactor(from, to);
+        return value -> value * factor;
+    }
+
+    /**
+     * Converts every value of an array between units, in place.
+     *
+     * @param values The values.
+     * @param from The unit the values are in.
+     * @param to The target unit.
+     */
+    public static void convertInPlace(double[] values, PARTsUnitType from, PARTsUnitType to) {
+        convertInPlace(values, 0, values.length, from, to);
+    }
+
+    /**
+     * Converts a range of an array between units, in place.
+     *
+     * @param values The values.
+     * @param offset The index of the first value to convert.
+     * @param length The number of values to convert.
+     * @param from The unit the values are in.
+     * @param to The target unit.
+     */
+    public static void convertInPlace(
+            double[] values, int offset, int length, PARTsUnitType from, PARTsUnitType to) {
+        convert(values, offset, values, offset, length, from, to);
+    }
+
+    /**
+     * Converts a range of an array between units into another array.
+     *
+     * <p>The factor is looked up once and applied in a plain loop the JIT can vectorize.
+     *
+     * @param source The values.
+     * @param sourceOffset The index of the first value to convert.
+     * @param destination The array to write the converted values to. May be the source array if
+     *     the ranges start at the same index or do not overlap.
+     * @param destinationOffset The index to write the first converted value to.
+     * @param length The number of values to convert.
+     * @param from The unit the values are in.
+     * @param to The target unit.
+     */
+    public static void convert(
+            double[] source,
+            int sourceOffset,
+            double[] destination,
+            int destinationOffset,
+            int length,
+            PARTsUnitType from,
+            PARTsUnitType to) {
+        Objects.checkFromIndexSize(sourceOffset, length, source.length);
+        Objects.checkFromIndexSize(destinationOffset, length, destination.length);
+        double factor = getFactor(from, to);
+        if (factor == 1.0 && source == destination && sourceOffset == destinationOffset) return;
+        for (int i = 0; i < length; i++) {
+            destination[destinationOffset + i] = source[sourceOffset + i] * factor;
+        }
+    }
+
     // * DIRECT STATIC CONVERSIONS */
+    public static final DoubleUnaryOperator INCHES_TO_METERS =
+            converter(PARTsUnitType.Inch, PARTsUnitType.Meter);
+    public static final DoubleUnaryOperator METERS_TO_INCHES =
+            converter(PARTsUnitType.Meter, PARTsUnitType.Inch);
+    public static final DoubleUnaryOperator DEGREES_TO_RADIANS =
+            converter(PARTsUnitType.Angle, PARTsUnitType.Radian);
+
+    /**
+     * @deprecated Boxes every value. Use {@link #INCHES_TO_METERS}.
+     */
+    @Deprecated
     public static Function<Double, Double> InchesToMeters = inches -> inches / 39.37;
+
+    /**
+     * @deprecated Boxes every value. Use {@link #METERS_TO_INCHES}.
+     */
+    @Deprecated
     public static Function<Double, Double> MetersToInches = meters -> meters * 39.37;
+
+    /**
+     * @deprecated Boxes every value. Use {@link #DEGREES_TO_RADIANS}.
+     */
+    @Deprecated
     public static Function<Double, Double> DegreesToRadians = degrees -> degrees * (Math.PI / 180);
 }
@@ -4,6 +4,8 @@
 
 package org.parts3492.partslib.command;
 
+import org.parts3492.partslib.PARTsLogReplay;
+
 import edu.wpi.first.util.sendable.Sendable;
 import edu.wpi.first.wpilibj2.command.Subsystem;
 
@@ -17,4 +19,14 @@ public interface IPARTsSubsystem extends Subsystem, Sendable {
     public void reset();
 
     public void log();
+
+    /**
+     * Binds this subsystem's inputs to a log replay.
+     *
+     * <p>Override to feed recorded values into the subsystem in simulation, e.g. {@code
+     * replay.bindDouble("Drivetrain/Velocity", v -> simVelocity = v)}. Does nothing by default.
+     *
+     * @param replay The replay to bind to.
+     */
+    public default void bindReplay(PARTsLogReplay replay) {}
 }
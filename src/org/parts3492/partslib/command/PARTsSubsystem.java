@@ -29,7 +29,7 @@ public abstract class PARTsSubsystem extends SubsystemBase implements IPARTsSubs
     public PARTsSubsystem() {
         partsNT = new PARTsNT(this.getName());
         partsLogger = new PARTsLogger(this.getName());
-        partsPrefrences = new PARTsPreferences();
+        partsPrefrences = new PARTsPreferences(this.getName());
     }
 
     /**
@@ -43,7 +43,7 @@ public abstract class PARTsSubsystem extends SubsystemBase implements IPARTsSubs
     public PARTsSubsystem(boolean enableLogging) {
         partsNT = new PARTsNT(this.getName());
         partsLogger = new PARTsLogger(this.getName(), enableLogging);
-        partsPrefrences = new PARTsPreferences();
+        partsPrefrences = new PARTsPreferences(this.getName());
     }
 
     /**
@@ -56,7 +56,7 @@ public abstract class PARTsSubsystem extends SubsystemBase implements IPARTsSubs
     public PARTsSubsystem(Object o) {
         partsNT = new PARTsNT(o);
         partsLogger = new PARTsLogger(o);
-        partsPrefrences = new PARTsPreferences();
+        partsPrefrences = new PARTsPreferences(o);
     }
 
     /**
@@ -71,7 +71,7 @@ public abstract class PARTsSubsystem extends SubsystemBase implements IPARTsSubs
     public PARTsSubsystem(Object o, boolean enableLogging) {
         partsNT = new PARTsNT(o);
         partsLogger = new PARTsLogger(o, enableLogging);
-        partsPrefrences = new PARTsPreferences();
+        partsPrefrences = new PARTsPreferences(o);
     }
 
     /**
@@ -84,7 +84,7 @@ public abstract class PARTsSubsystem extends SubsystemBase implements IPARTsSubs
     public PARTsSubsystem(String className) {
         partsNT = new PARTsNT(className);
         partsLogger = new PARTsLogger(className);
-        partsPrefrences = new PARTsPreferences();
+        partsPrefrences = new PARTsPreferences(className);
     }
 
     /**
@@ -99,6 +99,6 @@ public abstract class PARTsSubsystem extends SubsystemBase implements IPARTsSubs
     public PARTsSubsystem(String className, boolean enableLogging) {
         partsNT = new PARTsNT(className);
         partsLogger = new PARTsLogger(className);
-        partsPrefrences = new PARTsPreferences();
+        partsPrefrences = new PARTsPreferences(className);
     }
 }
@@ -4,21 +4,51 @@
 
 package org.parts3492.partslib.network;
 
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Pose3d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.networktables.BooleanArrayEntry;
+import edu.wpi.first.networktables.BooleanArrayTopic;
 import edu.wpi.first.networktables.BooleanEntry;
 import edu.wpi.first.networktables.BooleanTopic;
+import edu.wpi.first.networktables.DoubleArrayEntry;
+import edu.wpi.first.networktables.DoubleArrayTopic;
 import edu.wpi.first.networktables.DoubleEntry;
 import edu.wpi.first.networktables.DoubleTopic;
+import edu.wpi.first.networktables.IntegerArrayEntry;
+import edu.wpi.first.networktables.IntegerArrayTopic;
 import edu.wpi.first.networktables.IntegerEntry;
 import edu.wpi.first.networktables.IntegerTopic;
 import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableEvent;
 import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.NetworkTableValue;
+import edu.wpi.first.networktables.NetworkTablesJNI;
+import edu.wpi.first.networktables.RawPublisher;
+import edu.wpi.first.networktables.RawTopic;
 import edu.wpi.first.networktables.StringEntry;
 import edu.wpi.first.networktables.StringTopic;
+import edu.wpi.first.networktables.Subscriber;
+import edu.wpi.first.util.function.BooleanConsumer;
 import edu.wpi.first.util.sendable.Sendable;
+import edu.wpi.first.util.struct.Struct;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.LongConsumer;
 
 /**
  * PARTs NetworkTables Easy API.
@@ -38,17 +68,86 @@ public class PARTsNT {
      *
      * <p>Use the other chilld classes instead.
      */
-    private class EasyGenericEntry {
+    public abstract class EasyGenericEntry {
         /** The NetworkTables topic name. */
         public String topicName;
 
-        public EasyGenericEntry() {}
-    }
+        /** Whether a value has been published through this entry yet. */
+        protected boolean published;
 
-    class EasyBooleanEntry extends EasyGenericEntry {
-        /** The NetworkTables topic name. */
-        public String topicName;
+        /** Whether the cached value is staged and waiting for the next flush. */
+        protected boolean dirty;
+
+        /** Minimum time between publishes in microseconds. Zero disables rate limiting. */
+        protected long minPublishPeriod;
 
+        /** The NetworkTables time of the last allowed publish in microseconds. */
+        protected long lastPublishTime;
+
+        public EasyGenericEntry(String name) {
+            topicName = name;
+        }
+
+        /**
+         * Limits how often this entry is published.
+         *
+         * <p>Values set while the limit is active are not lost; the latest one goes out with the
+         * first set call after the period has elapsed.
+         *
+         * @param hertz The maximum publish rate. Zero or less removes the limit.
+         */
+        public void setMaxPublishRate(double hertz) {
+            minPublishPeriod = (hertz > 0) ? (long) (1e6 / hertz) : 0;
+        }
+
+        /**
+         * Checks the rate limit and claims the current publish slot if it is open.
+         *
+         * <p>Internal function.
+         *
+         * @return True if the entry may publish now.
+         */
+        boolean claimPublishSlot() {
+            if (minPublishPeriod == 0) return true;
+            long now = NetworkTablesJNI.now();
+            if (published && now - lastPublishTime < minPublishPeriod) return false;
+            lastPublishTime = now;
+            return true;
+        }
+
+        /**
+         * Publishes the cached value now, or stages it when staged mode is enabled.
+         *
+         * <p>Internal function.
+         */
+        void publish() {
+            published = true;
+            if (!staged) {
+                write(0);
+            } else if (!dirty) {
+                dirty = true;
+                dirtyEntries.add(this);
+            }
+        }
+
+        /**
+         * Writes the cached value to the NetworkTables entry.
+         *
+         * @param time The timestamp to publish with, or 0 to use the current time.
+         */
+        abstract void write(long time);
+
+        /** Releases the underlying NetworkTables entry. */
+        abstract void close();
+    }
+
+    /**
+     * Pre-resolved boolean topic handle.
+     *
+     * <p>Get one with {@link PARTsNT#getBooleanHandle(String)} and keep it as a field so hot paths
+     * can publish without a topic lookup.
+     */
+    public class EasyBooleanEntry extends EasyGenericEntry {
         public BooleanTopic topic;
         public BooleanEntry entry;
 
@@ -60,25 +159,64 @@ public class PARTsNT {
          */
         public boolean cachedValue;
 
+        /** The value last handed to NetworkTables. */
+        public boolean publishedValue;
+
         public EasyBooleanEntry(String name) {
-            topicName = name;
+            super(name);
             topic = table.getBooleanTopic(name);
             entry = topic.getEntry(false);
         }
 
         public EasyBooleanEntry(String name, Boolean value) {
-            topicName = name;
-            topic = table.getBooleanTopic(name);
-            entry = topic.getEntry(false);
-            entry.set(value);
+            this(name);
+            set(value);
+        }
+
+        /**
+         * Gets the current value of the entry.
+         *
+         * <p>A value staged for the next flush is returned as is.
+         *
+         * @return The value.
+         */
+        public boolean get() {
+            return dirty ? cachedValue : (cachedValue = entry.get());
+        }
+
+        /**
+         * Publishes a new value if it differs from the last published one.
+         *
+         * <p>Honors the deadband and rate limit set on this entry.
+         *
+         * @param value The new value to publish to the entry.
+         */
+        public void set(boolean value) {
             cachedValue = value;
+            if ((!published || publishedValue != value) && claimPublishSlot()) {
+                publishedValue = value;
+                publish();
+            }
         }
-    }
 
-    class EasyIntegerEntry extends EasyGenericEntry {
-        /** The NetworkTables topic name. */
-        public String topicName;
+        @Override
+        void write(long time) {
+            entry.set(publishedValue, time);
+        }
+
+        @Override
+        void close() {
+            entry.close();
+        }
+    }
 
+    /**
+     * Pre-resolved integer topic handle.
+     *
+     * <p>Get one with {@link PARTsNT#getIntegerHandle(String)} and keep it as a field so hot paths
+     * can publish without a topic lookup.
+     */
+    public class EasyIntegerEntry extends EasyGenericEntry {
         public IntegerTopic topic;
         public IntegerEntry entry;
 
@@ -90,25 +228,77 @@ public class PARTsNT {
          */
         public int cachedValue;
 
+        /** The value last handed to NetworkTables. */
+        public int publishedValue;
+
+        /** Changes smaller than or equal to this are not published. */
+        public int deadband;
+
         public EasyIntegerEntry(String name) {
-            topicName = name;
+            super(name);
             topic = table.getIntegerTopic(name);
             entry = topic.getEntry(0);
         }
 
         public EasyIntegerEntry(String name, int value) {
-            topicName = name;
-            topic = table.getIntegerTopic(name);
-            entry = topic.getEntry(0);
-            entry.set(value);
+            this(name);
+            set(value);
+        }
+
+        /**
+         * Gets the current value of the entry.
+         *
+         * <p>A value staged for the next flush is returned as is.
+         *
+         * @return The value.
+         */
+        public int get() {
+            return dirty ? cachedValue : (cachedValue = Math.toIntExact(entry.get()));
+        }
+
+        /**
+         * Publishes a new value if it differs from the last published one.
+         *
+         * <p>Honors the deadband and rate limit set on this entry.
+         *
+         * @param value The new value to publish to the entry.
+         */
+        public void set(int value) {
             cachedValue = value;
+            if ((!published || Math.abs((long) value - publishedValue) > deadband)
+                    && claimPublishSlot()) {
+                publishedValue = value;
+                publish();
+            }
         }
-    }
 
-    class EasyDoubleEntry extends EasyGenericEntry {
-        /** The NetworkTables topic name. */
-        public String topicName;
+        /**
+         * Sets the deadband for this entry.
+         *
+         * @param deadband Changes smaller than or equal to this are not published.
+         */
+        public void setDeadband(int deadband) {
+            this.deadband = Math.abs(deadband);
+        }
+
+        @Override
+        void write(long time) {
+            entry.set(publishedValue, time);
+        }
 
+        @Override
+        void close() {
+            entry.close();
+        }
+    }
+
+    /**
+     * Pre-resolved double topic handle.
+     *
+     * <p>Get one with {@link PARTsNT#getDoubleHandle(String)} and keep it as a field so hot paths
+     * can publish without a topic lookup.
+     */
+    public class EasyDoubleEntry extends EasyGenericEntry {
         public DoubleTopic topic;
         public DoubleEntry entry;
 
@@ -120,25 +310,107 @@ public class PARTsNT {
          */
         public double cachedValue;
 
+        /** The value last handed to NetworkTables. */
+        public double publishedValue;
+
+        /** Absolute changes smaller than or equal to this are not published. */
+        public double deadband;
+
+        /**
+         * Changes smaller than or equal to this fraction of the last published value are not
+         * published.
+         */
+        public double relativeDeadband;
+
         public EasyDoubleEntry(String name) {
-            topicName = name;
+            super(name);
             topic = table.getDoubleTopic(name);
             entry = topic.getEntry(0.0);
         }
 
         public EasyDoubleEntry(String name, double value) {
-            topicName = name;
-            topic = table.getDoubleTopic(name);
-            entry = topic.getEntry(0.0);
-            entry.set(value);
+            this(name);
+            set(value);
+        }
+
+        /**
+         * Gets the current value of the entry.
+         *
+         * <p>A value staged for the next flush is returned as is.
+         *
+         * @return The value.
+         */
+        public double get() {
+            return dirty ? cachedValue : (cachedValue = entry.get());
+        }
+
+        /**
+         * Publishes a new value if it differs from the last published one.
+         *
+         * <p>Honors the deadband and rate limit set on this entry.
+         *
+         * @param value The new value to publish to the entry.
+         */
+        public void set(double value) {
             cachedValue = value;
+            if ((!published || exceedsDeadband(value)) && claimPublishSlot()) {
+                publishedValue = value;
+                publish();
+            }
         }
-    }
 
-    class EasyStringEntry extends EasyGenericEntry {
-        /** The NetworkTables topic name. */
-        public String topicName;
+        /**
+         * Sets the absolute deadband for this entry.
+         *
+         * @param deadband Changes smaller than or equal to this are not published.
+         */
+        public void setDeadband(double deadband) {
+            this.deadband = Math.abs(deadband);
+        }
+
+        /**
+         * Sets the relative deadband for this entry.
+         *
+         * <p>When both deadbands are set, the larger of the two thresholds is used.
+         *
+         * @param fraction Changes smaller than or equal to this fraction of the last published
+         *     value are not published. E.g. 0.01 for 1%.
+         */
+        public void setRelativeDeadband(double fraction) {
+            relativeDeadband = Math.abs(fraction);
+        }
+
+        /**
+         * Checks if a value is far enough from the last published value to be published.
+         *
+         * <p>NaN always counts as a change.
+         *
+         * @param value The new value.
+         * @return True if the value should be published.
+         */
+        private boolean exceedsDeadband(double value) {
+            double threshold = Math.max(deadband, relativeDeadband * Math.abs(publishedValue));
+            return !(Math.abs(value - publishedValue) <= threshold);
+        }
+
+        @Override
+        void write(long time) {
+            entry.set(publishedValue, time);
+        }
+
+        @Override
+        void close() {
+            entry.close();
+        }
+    }
 
+    /**
+     * Pre-resolved string topic handle.
+     *
+     * <p>Get one with {@link PARTsNT#getStringHandle(String)} and keep it as a field so hot paths
+     * can publish without a topic lookup.
+     */
+    public class EasyStringEntry extends EasyGenericEntry {
         public StringTopic topic;
         public StringEntry entry;
 
@@ -150,170 +422,718 @@ public class PARTsNT {
          */
         public String cachedValue;
 
+        /** The value last handed to NetworkTables. */
+        public String publishedValue;
+
         public EasyStringEntry(String name) {
-            topicName = name;
+            super(name);
             topic = table.getStringTopic(name);
             entry = topic.getEntry("");
         }
 
         public EasyStringEntry(String name, String value) {
-            topicName = name;
-            topic = table.getStringTopic(name);
-            entry = topic.getEntry("");
-            entry.set(value);
+            this(name);
+            set(value);
+        }
+
+        /**
+         * Gets the current value of the entry.
+         *
+         * <p>A value staged for the next flush is returned as is.
+         *
+         * @return The value.
+         */
+        public String get() {
+            return dirty ? cachedValue : (cachedValue = entry.get());
+        }
+
+        /**
+         * Publishes a new value if it differs from the last published one.
+         *
+         * <p>Honors the deadband and rate limit set on this entry.
+         *
+         * @param value The new value to publish to the entry.
+         */
+        public void set(String value) {
             cachedValue = value;
+            if ((!published || !value.equals(publishedValue)) && claimPublishSlot()) {
+                publishedValue = value;
+                publish();
+            }
+        }
+
+        @Override
+        void write(long time) {
+            entry.set(publishedValue, time);
+        }
+
+        @Override
+        void close() {
+            entry.close();
+        }
+    }
+
+    /**
+     * Pre-resolved boolean array topic handle.
+     *
+     * <p>Values are copied into a reused buffer, so publishing an array of the same length every
+     * loop does not allocate.
+     */
+    public class EasyBooleanArrayEntry extends EasyGenericEntry {
+        public BooleanArrayTopic topic;
+        public BooleanArrayEntry entry;
+
+        /** The value last handed to NetworkTables. Reused between publishes. */
+        public boolean[] publishedValue = new boolean[0];
+
+        public EasyBooleanArrayEntry(String name) {
+            super(name);
+            topic = table.getBooleanArrayTopic(name);
+            entry = topic.getEntry(new boolean[0]);
+        }
+
+        /**
+         * Gets the current value of the entry.
+         *
+         * <p>A value staged for the next flush is returned as is. Do not modify the returned array.
+         *
+         * @return The value.
+         */
+        public boolean[] get() {
+            return dirty ? publishedValue : entry.get();
+        }
+
+        /**
+         * Publishes a new value if it differs from the last published one.
+         *
+         * <p>Honors the rate limit set on this entry.
+         *
+         * @param value The new value to publish to the entry.
+         */
+        public void set(boolean[] value) {
+            if ((!published || !Arrays.equals(value, publishedValue)) && claimPublishSlot()) {
+                if (publishedValue.length != value.length) {
+                    publishedValue = new boolean[value.length];
+                }
+                System.arraycopy(value, 0, publishedValue, 0, value.length);
+                publish();
+            }
+        }
+
+        @Override
+        void write(long time) {
+            entry.set(publishedValue, time);
+        }
+
+        @Override
+        void close() {
+            entry.close();
+        }
+    }
+
+    /**
+     * Pre-resolved integer array topic handle.
+     *
+     * <p>Values are copied into a reused buffer, so publishing an array of the same length every
+     * loop does not allocate.
+     */
+    public class EasyIntegerArrayEntry extends EasyGenericEntry {
+        public IntegerArrayTopic topic;
+        public IntegerArrayEntry entry;
+
+        /** The value last handed to NetworkTables. Reused between publishes. */
+        public long[] publishedValue = new long[0];
+
+        public EasyIntegerArrayEntry(String name) {
+            super(name);
+            topic = table.getIntegerArrayTopic(name);
+            entry = topic.getEntry(new long[0]);
+        }
+
+        /**
+         * Gets the current value of the entry.
+         *
+         * <p>A value staged for the next flush is returned as is. Do not modify the returned array.
+         *
+         * @return The value.
+         */
+        public long[] get() {
+            return dirty ? publishedValue : entry.get();
+        }
+
+        /**
+         * Publishes a new value if it differs from the last published one.
+         *
+         * <p>Honors the rate limit set on this entry.
+         *
+         * @param value The new value to publish to the entry.
+         */
+        public void set(long[] value) {
+            if ((!published || !Arrays.equals(value, publishedValue)) && claimPublishSlot()) {
+                if (publishedValue.length != value.length) {
+                    publishedValue = new long[value.length];
+                }
+                System.arraycopy(value, 0, publishedValue, 0, value.length);
+                publish();
+            }
+        }
+
+        @Override
+        void write(long time) {
+            entry.set(publishedValue, time);
+        }
+
+        @Override
+        void close() {
+            entry.close();
+        }
+    }
+
+    /**
+     * Pre-resolved double array topic handle.
+     *
+     * <p>Values are copied into a reused buffer, so publishing an array of the same length every
+     * loop does not allocate.
+     */
+    public class EasyDoubleArrayEntry extends EasyGenericEntry {
+        public DoubleArrayTopic topic;
+        public DoubleArrayEntry entry;
+
+        /** The value last handed to NetworkTables. Reused between publishes. */
+        public double[] publishedValue = new double[0];
+
+        public EasyDoubleArrayEntry(String name) {
+            super(name);
+            topic = table.getDoubleArrayTopic(name);
+            entry = topic.getEntry(new double[0]);
+        }
+
+        /**
+         * Gets the current value of the entry.
+         *
+         * <p>A value staged for the next flush is returned as is. Do not modify the returned array.
+         *
+         * @return The value.
+         */
+        public double[] get() {
+            return dirty ? publishedValue : entry.get();
+        }
+
+        /**
+         * Publishes a new value if it differs from the last published one.
+         *
+         * <p>Honors the rate limit set on this entry.
+         *
+         * @param value The new value to publish to the entry.
+         */
+        public void set(double[] value) {
+            if ((!published || !Arrays.equals(value, publishedValue)) && claimPublishSlot()) {
+                if (publishedValue.length != value.length) {
+                    publishedValue = new double[value.length];
+                }
+                System.arraycopy(value, 0, publishedValue, 0, value.length);
+                publish();
+            }
+        }
+
+        @Override
+        void write(long time) {
+            entry.set(publishedValue, time);
+        }
+
+        @Override
+        void close() {
+            entry.close();
+        }
+    }
+
+    /**
+     * Pre-resolved struct topic handle.
+     *
+     * <p>Values are packed with the topic's struct serializer into a reused buffer, and those bytes
+     * are published as is, so a pose or similar goes out as one atomic value without allocating.
+     *
+     * <p>Changes are detected on the packed bytes, so mutable structs that the caller updates in
+     * place, like {@link ChassisSpeeds}, are still published when they change.
+     *
+     * @param <T> The struct type.
+     */
+    public class EasyStructEntry<T> extends EasyGenericEntry {
+        public Struct<T> struct;
+        public RawTopic topic;
+        public RawPublisher publisher;
+
+        /** The new value, packed. Reused between calls. */
+        private final ByteBuffer packed;
+
+        /** The value last handed to NetworkTables, packed. */
+        private final ByteBuffer publishedBytes;
+
+        public EasyStructEntry(String name, Struct<T> struct) {
+            super(name);
+            this.struct = struct;
+            nt_Instance.addSchema(struct);
+            topic = table.getRawTopic(name);
+            publisher = topic.publish(struct.getTypeString());
+            packed = ByteBuffer.allocate(struct.getSize()).order(ByteOrder.LITTLE_ENDIAN);
+            publishedBytes = ByteBuffer.allocate(struct.getSize()).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        /**
+         * Publishes a new value if it differs from the last published one.
+         *
+         * <p>Honors the rate limit set on this entry.
+         *
+         * @param value The new value to publish to the entry.
+         */
+        public void set(T value) {
+            packed.clear();
+            struct.pack(packed, value);
+            packed.flip();
+            publishedBytes.rewind();
+            if ((!published || !packed.equals(publishedBytes)) && claimPublishSlot()) {
+                // Copy the bytes, since the write may be deferred to the next flush.
+                publishedBytes.clear();
+                publishedBytes.put(packed);
+                publishedBytes.flip();
+                publish();
+            }
+        }
+
+        @Override
+        void write(long time) {
+            publisher.set(publishedBytes.array(), 0, publishedBytes.limit(), time);
+        }
+
+        @Override
+        void close() {
+            publisher.close();
+        }
+    }
+
+    /**
+     * Pre-resolved struct array topic handle.
+     *
+     * <p>The array is packed into a reused buffer and published as one value, so e.g. all swerve
+     * module states go out in a single atomic publish without allocating.
+     *
+     * <p>Changes are detected on the packed bytes, so elements the caller updates in place, like
+     * {@link SwerveModuleState}, are still published when they change.
+     *
+     * @param <T> The struct type.
+     */
+    public class EasyStructArrayEntry<T> extends EasyGenericEntry {
+        public Struct<T> struct;
+        public RawTopic topic;
+        public RawPublisher publisher;
+
+        /** The new value, packed. Reused between calls while the length stays the same. */
+        private ByteBuffer packed = ByteBuffer.allocate(0);
+
+        /** The value last handed to NetworkTables, packed. */
+        private ByteBuffer publishedBytes = ByteBuffer.allocate(0);
+
+        public EasyStructArrayEntry(String name, Struct<T> struct) {
+            super(name);
+            this.struct = struct;
+            nt_Instance.addSchema(struct);
+            topic = table.getRawTopic(name);
+            publisher = topic.publish(struct.getTypeString() + "[]");
+        }
+
+        /**
+         * Publishes a new value if it differs from the last published one.
+         *
+         * <p>Honors the rate limit set on this entry.
+         *
+         * @param value The new value to publish to the entry.
+         */
+        public void set(T[] value) {
+            int size = struct.getSize() * value.length;
+            if (packed.capacity() != size) {
+                packed = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+            }
+            packed.clear();
+            for (T element : value) struct.pack(packed, element);
+            packed.flip();
+            publishedBytes.rewind();
+            if ((!published || !packed.equals(publishedBytes)) && claimPublishSlot()) {
+                if (publishedBytes.capacity() != size) {
+                    publishedBytes = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+                }
+                // Copy the bytes, since the write may be deferred to the next flush.
+                publishedBytes.clear();
+                publishedBytes.put(packed);
+                publishedBytes.flip();
+                publish();
+            }
+        }
+
+        @Override
+        void write(long time) {
+            publisher.set(publishedBytes.array(), 0, publishedBytes.limit(), time);
         }
+
+        @Override
+        void close() {
+            publisher.close();
+        }
+    }
+
+    /**
+     * Change subscription on a topic.
+     *
+     * <p>The NetworkTables listener only queues received values; the callback runs when {@link
+     * PARTsNT#processChanges()} drains the queue on the robot thread.
+     */
+    private abstract class Subscription {
+        /** The NetworkTables topic name. */
+        public String topicName;
+
+        public Subscriber subscriber;
+        public int listenerHandle;
+
+        public Subscription(String name, Subscriber subscriber) {
+            topicName = name;
+            this.subscriber = subscriber;
+            listenerHandle =
+                    nt_Instance.addListener(
+                            subscriber,
+                            EnumSet.of(
+                                    NetworkTableEvent.Kind.kImmediate,
+                                    NetworkTableEvent.Kind.kValueAll),
+                            event -> pendingChanges.offer(new PendingChange(this, event)));
+        }
+
+        /**
+         * Runs the callback with a received value.
+         *
+         * @param value The received value.
+         */
+        abstract void accept(NetworkTableValue value);
+
+        /** Removes the listener and releases the subscriber. */
+        void close() {
+            nt_Instance.removeListener(listenerHandle);
+            subscriber.close();
+        }
+    }
+
+    /** A received value waiting to be handed to its subscription. */
+    private static final class PendingChange {
+        final Subscription subscription;
+        final NetworkTableValue value;
+
+        PendingChange(Subscription subscription, NetworkTableEvent event) {
+            this.subscription = subscription;
+            this.value = event.valueData.value;
+        }
+    }
+
+    /** Every PARTsNT instance, so {@link #flushAll()} can reach them. */
+    private static final List<PARTsNT> instances = new ArrayList<>();
+
+    /** Whether puts are staged until the next flush instead of being published right away. */
+    private boolean staged = false;
+
+    /** Entries holding a staged value. Reused every loop. */
+    private final List<EasyGenericEntry> dirtyEntries = new ArrayList<>();
+
+    /** Active change subscriptions. */
+    private final List<Subscription> subscriptions = new ArrayList<>();
+
+    /** Values received by the listeners, filled from the NetworkTables listener thread. */
+    private final Queue<PendingChange> pendingChanges = new ConcurrentLinkedQueue<>();
+
+    List<Map<String, ? extends EasyGenericEntry>> masterList;
+    Map<String, EasyBooleanEntry> booleanEntries;
+    Map<String, EasyIntegerEntry> integerEntries;
+    Map<String, EasyDoubleEntry> doubleEntries;
+    Map<String, EasyStringEntry> stringEntries;
+    Map<String, EasyBooleanArrayEntry> booleanArrayEntries;
+    Map<String, EasyIntegerArrayEntry> integerArrayEntries;
+    Map<String, EasyDoubleArrayEntry> doubleArrayEntries;
+    Map<String, EasyStructEntry<?>> structEntries;
+    Map<String, EasyStructArrayEntry<?>> structArrayEntries;
+
+    /**
+     * Sets up the master list and the entry maps.
+     *
+     * <p>Entries are keyed by topic name so lookups stay constant time no matter how many topics
+     * an instance owns.
+     *
+     * <p>Internal function.
+     */
+    private void setupEntryLists() {
+        masterList = new ArrayList<>();
+        booleanEntries = new HashMap<>();
+        integerEntries = new HashMap<>();
+        doubleEntries = new HashMap<>();
+        stringEntries = new HashMap<>();
+        booleanArrayEntries = new HashMap<>();
+        integerArrayEntries = new HashMap<>();
+        doubleArrayEntries = new HashMap<>();
+        structEntries = new HashMap<>();
+        structArrayEntries = new HashMap<>();
+        masterList.add(booleanEntries);
+        masterList.add(integerEntries);
+        masterList.add(doubleEntries);
+        masterList.add(stringEntries);
+        masterList.add(booleanArrayEntries);
+        masterList.add(integerArrayEntries);
+        masterList.add(doubleArrayEntries);
+        masterList.add(structEntries);
+        masterList.add(structArrayEntries);
+        instances.add(this);
+    }
+
+    /**
+     * Creates a new PARTsNT instance.
+     *
+     * <p>Creates/uses the subtable "Generic" instead of the class subtable.
+     *
+     * <p>The object variation should be used instead.
+     */
+    public PARTsNT() {
+        table = nt_Instance.getTable("PARTs").getSubTable("Generic");
+        setupEntryLists();
+    }
+
+    /**
+     * Creates a new PARTsNT instance.
+     *
+     * <p>Creates/uses the class subtable.
+     *
+     * @param o The class object. (E.g. passing in 'this'.)
+     */
+    public PARTsNT(Object o) {
+        name = o.getClass().getSimpleName();
+        table = nt_Instance.getTable("PARTs").getSubTable(name);
+        setupEntryLists();
+    }
+
+    /**
+     * Creates a new PARTsNT instance.
+     *
+     * <p>Creates/uses the subtable of the class via its name.
+     *
+     * <p>If the name is empty, then the "Generic" table will be used instead.
+     *
+     * @param className The name of the class.
+     */
+    public PARTsNT(String className) {
+        name = (className != "") ? className : "Generic";
+        table = nt_Instance.getTable("PARTs").getSubTable(name);
+        setupEntryLists();
+    }
+
+    // * -------- TYPE SPECIFIC ENTRY CHECKS -------- *//
+
+    /**
+     * Gets an existing entry from the entry map.
+     *
+     * @param name The name of the entry.
+     * @return The entry if it exists, otherwise null.
+     */
+    private EasyBooleanEntry getBooleanEntry(String name) {
+        return booleanEntries.get(name);
+    }
+
+    /**
+     * Gets an existing entry from the entry map.
+     *
+     * @param name The name of the entry.
+     * @return The entry if it exists, otherwise null.
+     */
+    private EasyIntegerEntry getIntegerEntry(String name) {
+        return integerEntries.get(name);
     }
 
-    List<List> masterList;
-    List<EasyGenericEntry> topicsList;
-    List<EasyBooleanEntry> booleanEntries;
-    List<EasyIntegerEntry> integerEntries;
-    List<EasyDoubleEntry> doubleEntries;
-    List<EasyStringEntry> stringEntries;
+    /**
+     * Gets an existing entry from the entry map.
+     *
+     * @param name The name of the entry.
+     * @return The entry if it exists, otherwise null.
+     */
+    private EasyDoubleEntry getDoubleEntry(String name) {
+        return doubleEntries.get(name);
+    }
 
     /**
-     * Sets up the master list and the entry lists.
+     * Gets an existing entry from the entry map.
      *
-     * <p>Internal function.
+     * @param name The name of the entry.
+     * @return The entry if it exists, otherwise null.
      */
-    private void setupEntryLists() {
-        topicsList = new ArrayList<>();
-        masterList = new ArrayList<>();
-        booleanEntries = new ArrayList<>();
-        integerEntries = new ArrayList<>();
-        doubleEntries = new ArrayList<>();
-        stringEntries = new ArrayList<>();
-        masterList.add(topicsList);
-        masterList.add(booleanEntries);
-        masterList.add(integerEntries);
-        masterList.add(doubleEntries);
-        masterList.add(stringEntries);
+    private EasyStringEntry getStringEntry(String name) {
+        return stringEntries.get(name);
     }
 
+    // * -------- HANDLES -------- *//
+
     /**
-     * Creates a new PARTsNT instance.
+     * Gets a pre-resolved handle for the requested boolean entry, creating it if needed.
      *
-     * <p>Creates/uses the subtable "Generic" instead of the class subtable.
+     * <p>Store the handle and call its {@code set}/{@code get} instead of the name based
+     * functions in code that runs every loop.
      *
-     * <p>The object variation should be used instead.
+     * @param name The name of the entry.
+     * @return The entry handle.
      */
-    public PARTsNT() {
-        table = nt_Instance.getTable("PARTs").getSubTable("Generic");
-        setupEntryLists();
+    public EasyBooleanEntry getBooleanHandle(String name) {
+        EasyBooleanEntry entry = getBooleanEntry(name);
+        if (entry == null) {
+            entry = new EasyBooleanEntry(name);
+            booleanEntries.put(name, entry);
+        }
+        return entry;
     }
 
     /**
-     * Creates a new PARTsNT instance.
+     * Gets a pre-resolved handle for the requested integer entry, creating it if needed.
      *
-     * <p>Creates/uses the class subtable.
+     * <p>Store the handle and call its {@code set}/{@code get} instead of the name based
+     * functions in code that runs every loop.
      *
-     * @param o The class object. (E.g. passing in 'this'.)
+     * @param name The name of the entry.
+     * @return The entry handle.
      */
-    public PARTsNT(Object o) {
-        name = o.getClass().getSimpleName();
-        table = nt_Instance.getTable("PARTs").getSubTable(name);
-        setupEntryLists();
+    public EasyIntegerEntry getIntegerHandle(String name) {
+        EasyIntegerEntry entry = getIntegerEntry(name);
+        if (entry == null) {
+            entry = new EasyIntegerEntry(name);
+            integerEntries.put(name, entry);
+        }
+        return entry;
     }
 
     /**
-     * Creates a new PARTsNT instance.
+     * Gets a pre-resolved handle for the requested double entry, creating it if needed.
      *
-     * <p>Creates/uses the subtable of the class via its name.
-     *
-     * <p>If the name is empty, then the "Generic" table will be used instead.
+     * <p>Store the handle and call its {@code set}/{@code get} instead of the name based
+     * functions in code that runs every loop.
      *
-     * @param className The name of the class.
+     * @param name The name of the entry.
+     * @return The entry handle.
      */
-    public PARTsNT(String className) {
-        name = (className != "") ? className : "Generic";
-        table = nt_Instance.getTable("PARTs").getSubTable(name);
-        setupEntryLists();
+    public EasyDoubleEntry getDoubleHandle(String name) {
+        EasyDoubleEntry entry = getDoubleEntry(name);
+        if (entry == null) {
+            entry = new EasyDoubleEntry(name);
+            doubleEntries.put(name, entry);
+        }
+        return entry;
     }
 
-    // * -------- HELPER FUNCTIONS -------- *//
-
     /**
-     * Adds an entry to the list if the entry is not already on the list.
+     * Gets a pre-resolved handle for the requested string entry, creating it if needed.
+     *
+     * <p>Store the handle and call its {@code set}/{@code get} instead of the name based
+     * functions in code that runs every loop.
      *
-     * @param entry The entry to be added.
+     * @param name The name of the entry.
+     * @return The entry handle.
      */
-    private void addEntryToList(EasyGenericEntry entry) {
-        // Check if the entry already exists in the list.
-        for (int i = 0; i < topicsList.size(); i++) {
-            if (topicsList.get(i).topicName.equals(entry.topicName)) {
-                return; // It exists so we abort adding it to avoid dupes.
-            }
+    public EasyStringEntry getStringHandle(String name) {
+        EasyStringEntry entry = getStringEntry(name);
+        if (entry == null) {
+            entry = new EasyStringEntry(name);
+            stringEntries.put(name, entry);
         }
-        // Add the EasyGenericEntry. (Could also be any child.)
-        topicsList.add(entry);
+        return entry;
     }
 
     /**
-     * Gets an existing entry from the entry list.
+     * Gets a pre-resolved handle for the requested boolean array entry, creating it if needed.
      *
      * @param name The name of the entry.
-     * @return The entry if it exists, otherwise null.
+     * @return The entry handle.
      */
-    private EasyGenericEntry getEntry(String name) {
-        for (EasyGenericEntry entry : topicsList) {
-            if (entry.topicName.equals(name)) return entry;
+    public EasyBooleanArrayEntry getBooleanArrayHandle(String name) {
+        EasyBooleanArrayEntry entry = booleanArrayEntries.get(name);
+        if (entry == null) {
+            entry = new EasyBooleanArrayEntry(name);
+            booleanArrayEntries.put(name, entry);
         }
-        return null;
+        return entry;
     }
 
-    // * -------- TYPE SPECIFIC ENTRY CHECKS -------- *//
-
     /**
-     * Gets an existing entry from the entry list.
+     * Gets a pre-resolved handle for the requested integer array entry, creating it if needed.
      *
      * @param name The name of the entry.
-     * @return The entry if it exists, otherwise null.
+     * @return The entry handle.
      */
-    private EasyBooleanEntry getBooleanEntry(String name) {
-        for (EasyBooleanEntry entry : booleanEntries) {
-            if (entry.topicName.equals(name)) return entry;
+    public EasyIntegerArrayEntry getIntegerArrayHandle(String name) {
+        EasyIntegerArrayEntry entry = integerArrayEntries.get(name);
+        if (entry == null) {
+            entry = new EasyIntegerArrayEntry(name);
+            integerArrayEntries.put(name, entry);
         }
-        return null;
+        return entry;
     }
 
     /**
-     * Gets an existing entry from the entry list.
+     * Gets a pre-resolved handle for the requested double array entry, creating it if needed.
      *
      * @param name The name of the entry.
-     * @return The entry if it exists, otherwise null.
+     * @return The entry handle.
      */
-    private EasyIntegerEntry getIntegerEntry(String name) {
-        for (EasyIntegerEntry entry : integerEntries) {
-            if (entry.topicName.equals(name)) return entry;
+    public EasyDoubleArrayEntry getDoubleArrayHandle(String name) {
+        EasyDoubleArrayEntry entry = doubleArrayEntries.get(name);
+        if (entry == null) {
+            entry = new EasyDoubleArrayEntry(name);
+            doubleArrayEntries.put(name, entry);
         }
-        return null;
+        return entry;
     }
 
     /**
-     * Gets an existing entry from the entry list.
+     * Gets a pre-resolved handle for the requested struct entry, creating it if needed.
      *
+     * @param <T> The struct type.
      * @param name The name of the entry.
-     * @return The entry if it exists, otherwise null.
+     * @param struct The struct serializer, e.g. {@code Pose2d.struct}.
+     * @return The entry handle.
+     * @throws IllegalArgumentException If the entry already exists with a different struct type.
      */
-    private EasyDoubleEntry getDoubleEntry(String name) {
-        for (EasyDoubleEntry entry : doubleEntries) {
-            if (entry.topicName.equals(name)) return entry;
+    @SuppressWarnings("unchecked")
+    public <T> EasyStructEntry<T> getStructHandle(String name, Struct<T> struct) {
+        EasyStructEntry<?> entry = structEntries.get(name);
+        if (entry == null) {
+            EasyStructEntry<T> newEntry = new EasyStructEntry<>(name, struct);
+            structEntries.put(name, newEntry);
+            return newEntry;
+        }
+        if (!entry.struct.getTypeName().equals(struct.getTypeName())) {
+            throw new IllegalArgumentException(
+                    "Entry " + name + " is a " + entry.struct.getTypeName() + " struct.");
         }
-        return null;
+        return (EasyStructEntry<T>) entry;
     }
 
     /**
-     * Gets an existing entry from the entry list.
+     * Gets a pre-resolved handle for the requested struct array entry, creating it if needed.
      *
+     * @param <T> The struct type.
      * @param name The name of the entry.
-     * @return The entry if it exists, otherwise null.
+     * @param struct The struct serializer, e.g. {@code SwerveModuleState.struct}.
+     * @return The entry handle.
+     * @throws IllegalArgumentException If the entry already exists with a different struct type.
      */
-    private EasyStringEntry getStringEntry(String name) {
-        for (EasyStringEntry entry : stringEntries) {
-            if (entry.topicName.equals(name)) return entry;
+    @SuppressWarnings("unchecked")
+    public <T> EasyStructArrayEntry<T> getStructArrayHandle(String name, Struct<T> struct) {
+        EasyStructArrayEntry<?> entry = structArrayEntries.get(name);
+        if (entry == null) {
+            EasyStructArrayEntry<T> newEntry = new EasyStructArrayEntry<>(name, struct);
+            structArrayEntries.put(name, newEntry);
+            return newEntry;
+        }
+        if (!entry.struct.getTypeName().equals(struct.getTypeName())) {
+            throw new IllegalArgumentException(
+                    "Entry " + name + " is a " + entry.struct.getTypeName() + " struct array.");
         }
-        return null;
+        return (EasyStructArrayEntry<T>) entry;
     }
 
     // * -------- BOOLEAN FUNCTIONS -------- *//
@@ -326,7 +1146,7 @@ public class PARTsNT {
      */
     public boolean getBoolean(String name) {
         EasyBooleanEntry entry = getBooleanEntry(name);
-        return (entry == null) ? false : (entry.cachedValue = entry.entry.get());
+        return (entry == null) ? false : entry.get();
     }
 
     /**
@@ -336,12 +1156,7 @@ public class PARTsNT {
      * @param value The new value to publish to the entry.
      */
     public void putBoolean(String name, boolean value) {
-        EasyBooleanEntry entry = getBooleanEntry(name);
-        if (entry == null) {
-            booleanEntries.add(new EasyBooleanEntry(name, value));
-        } else if (entry.cachedValue != value) {
-            entry.entry.set((entry.cachedValue = value));
-        }
+        getBooleanHandle(name).set(value);
     }
 
     // * -------- INTEGER FUNCTIONS -------- *//
@@ -354,7 +1169,7 @@ public class PARTsNT {
      */
     public int getInteger(String name) {
         EasyIntegerEntry entry = getIntegerEntry(name);
-        return (entry == null) ? 0 : (entry.cachedValue = Math.toIntExact(entry.entry.get()));
+        return (entry == null) ? 0 : entry.get();
     }
 
     /**
@@ -364,12 +1179,7 @@ public class PARTsNT {
      * @param value The new value to publish to the entry.
      */
     public void putInteger(String name, int value) {
-        EasyIntegerEntry entry = getIntegerEntry(name);
-        if (entry == null) {
-            integerEntries.add(new EasyIntegerEntry(name, value));
-        } else if (entry.cachedValue != value) {
-            entry.entry.set((entry.cachedValue = value));
-        }
+        getIntegerHandle(name).set(value);
     }
 
     // * -------- DOUBLE FUNCTIONS -------- *//
@@ -382,7 +1192,7 @@ public class PARTsNT {
      */
     public double getDouble(String name) {
         EasyDoubleEntry entry = getDoubleEntry(name);
-        return (entry == null) ? 0 : (entry.cachedValue = entry.entry.get());
+        return (entry == null) ? 0 : entry.get();
     }
 
     /**
@@ -392,12 +1202,7 @@ public class PARTsNT {
      * @param value The new value to publish to the entry.
      */
     public void putDouble(String name, double value) {
-        EasyDoubleEntry entry = getDoubleEntry(name);
-        if (entry == null) {
-            doubleEntries.add(new EasyDoubleEntry(name, value));
-        } else if (entry.cachedValue != value) {
-            entry.entry.set((entry.cachedValue = value));
-        }
+        getDoubleHandle(name).set(value);
     }
 
     /**
@@ -430,7 +1235,7 @@ public class PARTsNT {
      */
     public String getString(String name) {
         EasyStringEntry entry = getStringEntry(name);
-        return (entry == null) ? "" : (entry.cachedValue = entry.entry.get());
+        return (entry == null) ? "" : entry.get();
     }
 
     /**
@@ -440,40 +1245,355 @@ public class PARTsNT {
      * @param value The new value to publish to the entry.
      */
     public void putString(String name, String value) {
-        EasyStringEntry entry = getStringEntry(name);
-        if (entry == null) {
-            stringEntries.add(new EasyStringEntry(name, value));
-        } else if (entry.cachedValue != value) {
-            entry.entry.set((entry.cachedValue = value));
+        getStringHandle(name).set(value);
+    }
+
+    // * -------- ARRAY FUNCTIONS -------- *//
+
+    /**
+     * Gets the boolean array value from the requested entry.
+     *
+     * @param name The name of the entry.
+     * @return Returns the value if entry is found, otherwise returns an empty array.
+     */
+    public boolean[] getBooleanArray(String name) {
+        EasyBooleanArrayEntry entry = booleanArrayEntries.get(name);
+        return (entry == null) ? new boolean[0] : entry.get();
+    }
+
+    /**
+     * Sets the boolean array value for the requested entry.
+     *
+     * @param name The name of the entry.
+     * @param value The new value to publish to the entry.
+     */
+    public void putBooleanArray(String name, boolean[] value) {
+        getBooleanArrayHandle(name).set(value);
+    }
+
+    /**
+     * Gets the integer array value from the requested entry.
+     *
+     * @param name The name of the entry.
+     * @return Returns the value if entry is found, otherwise returns an empty array.
+     */
+    public long[] getIntegerArray(String name) {
+        EasyIntegerArrayEntry entry = integerArrayEntries.get(name);
+        return (entry == null) ? new long[0] : entry.get();
+    }
+
+    /**
+     * Sets the integer array value for the requested entry.
+     *
+     * @param name The name of the entry.
+     * @param value The new value to publish to the entry.
+     */
+    public void putIntegerArray(String name, long[] value) {
+        getIntegerArrayHandle(name).set(value);
+    }
+
+    /**
+     * Gets the double array value from the requested entry.
+     *
+     * @param name The name of the entry.
+     * @return Returns the value if entry is found, otherwise returns an empty array.
+     */
+    public double[] getDoubleArray(String name) {
+        EasyDoubleArrayEntry entry = doubleArrayEntries.get(name);
+        return (entry == null) ? new double[0] : entry.get();
+    }
+
+    /**
+     * Sets the double array value for the requested entry.
+     *
+     * @param name The name of the entry.
+     * @param value The new value to publish to the entry.
+     */
+    public void putDoubleArray(String name, double[] value) {
+        getDoubleArrayHandle(name).set(value);
+    }
+
+    // * -------- STRUCT FUNCTIONS -------- *//
+
+    /**
+     * Sets the struct value for the requested entry.
+     *
+     * @param <T> The struct type.
+     * @param name The name of the entry.
+     * @param struct The struct serializer, e.g. {@code Pose2d.struct}.
+     * @param value The new value to publish to the entry.
+     */
+    public <T> void putStruct(String name, Struct<T> struct, T value) {
+        getStructHandle(name, struct).set(value);
+    }
+
+    /**
+     * Sets the pose value for the requested entry.
+     *
+     * @param name The name of the entry.
+     * @param value The new value to publish to the entry.
+     */
+    public void putStruct(String name, Pose2d value) {
+        putStruct(name, Pose2d.struct, value);
+    }
+
+    /**
+     * Sets the pose value for the requested entry.
+     *
+     * @param name The name of the entry.
+     * @param value The new value to publish to the entry.
+     */
+    public void putStruct(String name, Pose3d value) {
+        putStruct(name, Pose3d.struct, value);
+    }
+
+    /**
+     * Sets the chassis speeds value for the requested entry.
+     *
+     * @param name The name of the entry.
+     * @param value The new value to publish to the entry.
+     */
+    public void putStruct(String name, ChassisSpeeds value) {
+        putStruct(name, ChassisSpeeds.struct, value);
+    }
+
+    /**
+     * Sets the struct array value for the requested entry.
+     *
+     * @param <T> The struct type.
+     * @param name The name of the entry.
+     * @param struct The struct serializer, e.g. {@code SwerveModuleState.struct}.
+     * @param value The new value to publish to the entry.
+     */
+    public <T> void putStructArray(String name, Struct<T> struct, T[] value) {
+        getStructArrayHandle(name, struct).set(value);
+    }
+
+    /**
+     * Sets the pose array value for the requested entry.
+     *
+     * @param name The name of the entry.
+     * @param value The new value to publish to the entry.
+     */
+    public void putStructArray(String name, Pose2d[] value) {
+        putStructArray(name, Pose2d.struct, value);
+    }
+
+    /**
+     * Sets the swerve module state array value for the requested entry.
+     *
+     * @param name The name of the entry.
+     * @param value The new value to publish to the entry.
+     */
+    public void putStructArray(String name, SwerveModuleState[] value) {
+        putStructArray(name, SwerveModuleState.struct, value);
+    }
+
+    /**
+     * Sets the swerve module position array value for the requested entry.
+     *
+     * @param name The name of the entry.
+     * @param value The new value to publish to the entry.
+     */
+    public void putStructArray(String name, SwerveModulePosition[] value) {
+        putStructArray(name, SwerveModulePosition.struct, value);
+    }
+
+    // * -------- SUBSCRIPTION FUNCTIONS -------- *//
+
+    /**
+     * Runs the callback every time the requested boolean entry changes.
+     *
+     * <p>The callback runs from {@link #processChanges()}, once with the current value and then
+     * for every received update.
+     *
+     * @param name The name of the entry.
+     * @param callback The callback to run with the new value.
+     */
+    public void onBooleanChange(String name, BooleanConsumer callback) {
+        subscriptions.add(
+                new Subscription(name, table.getBooleanTopic(name).subscribe(false)) {
+                    @Override
+                    void accept(NetworkTableValue value) {
+                        if (value.isBoolean()) callback.accept(value.getBoolean());
+                    }
+                });
+    }
+
+    /**
+     * Runs the callback every time the requested integer entry changes.
+     *
+     * <p>The callback runs from {@link #processChanges()}, once with the current value and then
+     * for every received update.
+     *
+     * @param name The name of the entry.
+     * @param callback The callback to run with the new value.
+     */
+    public void onIntegerChange(String name, LongConsumer callback) {
+        subscriptions.add(
+                new Subscription(name, table.getIntegerTopic(name).subscribe(0)) {
+                    @Override
+                    void accept(NetworkTableValue value) {
+                        if (value.isInteger()) callback.accept(value.getInteger());
+                    }
+                });
+    }
+
+    /**
+     * Runs the callback every time the requested double entry changes.
+     *
+     * <p>The callback runs from {@link #processChanges()}, once with the current value and then
+     * for every received update.
+     *
+     * @param name The name of the entry.
+     * @param callback The callback to run with the new value.
+     */
+    public void onDoubleChange(String name, DoubleConsumer callback) {
+        subscriptions.add(
+                new Subscription(name, table.getDoubleTopic(name).subscribe(0.0)) {
+                    @Override
+                    void accept(NetworkTableValue value) {
+                        if (value.isDouble()) callback.accept(value.getDouble());
+                    }
+                });
+    }
+
+    /**
+     * Runs the callback every time the requested string entry changes.
+     *
+     * <p>The callback runs from {@link #processChanges()}, once with the current value and then
+     * for every received update.
+     *
+     * @param name The name of the entry.
+     * @param callback The callback to run with the new value.
+     */
+    public void onStringChange(String name, Consumer<String> callback) {
+        subscriptions.add(
+                new Subscription(name, table.getStringTopic(name).subscribe("")) {
+                    @Override
+                    void accept(NetworkTableValue value) {
+                        if (value.isString()) callback.accept(value.getString());
+                    }
+                });
+    }
+
+    /**
+     * Runs the callbacks for every value received since the last call.
+     *
+     * <p>Nothing is read from NetworkTables here, so unchanged entries cost nothing.
+     */
+    public void processChanges() {
+        PendingChange change;
+        while ((change = pendingChanges.poll()) != null) {
+            change.subscription.accept(change.value);
+        }
+    }
+
+    /**
+     * Runs the subscription callbacks of every PARTsNT instance.
+     *
+     * <p>Call this once at the start of each loop, e.g. at the top of {@code robotPeriodic()}.
+     */
+    public static void processAllChanges() {
+        for (int i = 0; i < instances.size(); i++) {
+            instances.get(i).processChanges();
+        }
+    }
+
+    // * -------- STAGED MODE FUNCTIONS -------- *//
+
+    /**
+     * Enables or disables staged mode.
+     *
+     * <p>In staged mode every put only updates the cached value, and nothing is sent to
+     * NetworkTables until {@link #flush()} or {@link #flushAll()} is called. Disabling staged mode
+     * flushes anything still pending.
+     *
+     * @param enabled True to stage values until the next flush.
+     */
+    public void setStagedMode(boolean enabled) {
+        if (staged && !enabled) flush();
+        staged = enabled;
+    }
+
+    /**
+     * Checks if staged mode is enabled.
+     *
+     * @return True if puts are staged until the next flush.
+     */
+    public boolean isStagedMode() {
+        return staged;
+    }
+
+    /** Publishes every staged value of this instance with a single timestamp. */
+    public void flush() {
+        flush(NetworkTablesJNI.now());
+    }
+
+    /**
+     * Publishes every staged value of this instance.
+     *
+     * @param time The timestamp to publish the values with.
+     */
+    private void flush(long time) {
+        for (int i = 0; i < dirtyEntries.size(); i++) {
+            EasyGenericEntry entry = dirtyEntries.get(i);
+            entry.dirty = false;
+            entry.write(time);
+        }
+        dirtyEntries.clear();
+    }
+
+    /**
+     * Publishes the staged values of every PARTsNT instance with one shared timestamp.
+     *
+     * <p>Call this once at the end of each loop, e.g. {@code addPeriodic(PARTsNT::flushAll,
+     * kDefaultPeriod)} in the robot class or right after {@code CommandScheduler.run()} in
+     * {@code robotPeriodic()}.
+     */
+    public static void flushAll() {
+        long time = NetworkTablesJNI.now();
+        for (int i = 0; i < instances.size(); i++) {
+            instances.get(i).flush(time);
         }
     }
 
     // * -------- REMOVAL FUNCTIONS -------- *//
 
-    /** Removes all previously created entries. */
+    /** Removes all previously created entries and subscriptions. */
     public void removeAllEntries() {
-        for (int i = 0; i < masterList.size(); i++) {
-            for (int j = 0; j < masterList.get(i).size(); j++) {
-                masterList.get(i).set(j, null);
-                masterList.get(i).remove(j);
+        for (Map<String, ? extends EasyGenericEntry> entries : masterList) {
+            for (EasyGenericEntry entry : entries.values()) {
+                entry.close();
             }
+            entries.clear();
         }
+        dirtyEntries.clear();
+        for (Subscription subscription : subscriptions) {
+            subscription.close();
+        }
+        subscriptions.clear();
     }
 
     /**
-     * Removes a previously created entry.
+     * Removes a previously created entry and its subscriptions.
      *
      * @param name The name of the entry to remove.
      */
     public void removeEntry(String name) {
-        for (int i = 0; i < masterList.size(); i++) {
-            for (int j = 0; j < masterList.get(i).size(); j++) {
-                if (((EasyGenericEntry) masterList.get(i).get(j)).topicName.equals(name)) {
-                    masterList.get(i).set(j, null);
-                    masterList.get(i).remove(j);
-                }
+        for (Map<String, ? extends EasyGenericEntry> entries : masterList) {
+            EasyGenericEntry entry = entries.remove(name);
+            if (entry != null) {
+                if (entry.dirty) dirtyEntries.remove(entry);
+                entry.close();
             }
         }
+        subscriptions.removeIf(
+                subscription -> {
+                    if (!subscription.topicName.equals(name)) return false;
+                    subscription.close();
+                    return true;
+                });
     }
 
     /**